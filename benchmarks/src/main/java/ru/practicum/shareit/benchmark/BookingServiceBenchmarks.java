@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingsPage;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmarks {
+
+    @Param({"10", "20"})
+    private int size;
+
+    @Param({"ALL", "PAST", "FUTURE", "WAITING"})
+    private BookingState state;
+
+    private BookingService bookingService;
+    private Long bookerId;
+    private String secondPageCursor;
+
+    @Setup
+    public void setUp(ShareItServerState server) {
+        bookingService = server.getBean(BookingService.class);
+        bookerId = server.bookerId;
+        secondPageCursor = bookingService.getBookingsByBooker(bookerId, state, 0, size / 2, null).getNextCursor();
+    }
+
+    @Benchmark
+    public BookingsPage firstPage() {
+        return bookingService.getBookingsByBooker(bookerId, state, 0, size, null);
+    }
+
+    @Benchmark
+    public BookingsPage offsetPage() {
+        return bookingService.getBookingsByBooker(bookerId, state, size / 2, size, null);
+    }
+
+    @Benchmark
+    public BookingsPage cursorPage() {
+        return bookingService.getBookingsByBooker(bookerId, state, 0, size, secondPageCursor);
+    }
+}
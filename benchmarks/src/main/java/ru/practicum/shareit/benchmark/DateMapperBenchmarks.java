@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateMapperBenchmarks {
+
+    private DateMapper dateMapper;
+    private Instant instant;
+    private String stringDate;
+    private LocalDateTime localDateTime;
+
+    @Setup
+    public void setUp() {
+        dateMapper = new DateMapper();
+        instant = Instant.now();
+        stringDate = dateMapper.toString(instant);
+        localDateTime = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public String instantToString() {
+        return dateMapper.toString(instant);
+    }
+
+    @Benchmark
+    public Instant stringToInstant() {
+        return dateMapper.toInstant(stringDate);
+    }
+
+    @Benchmark
+    public LocalDateTime stringToLocalDateTime() {
+        return dateMapper.toLocalDateTime(stringDate);
+    }
+
+    @Benchmark
+    public Instant localDateTimeToInstant() {
+        return dateMapper.toInstant(localDateTime);
+    }
+
+    @Benchmark
+    public Instant now() {
+        return dateMapper.now();
+    }
+
+    // прежняя реализация DateMapper для сравнения: форматтер создавался на каждый вызов
+    @Benchmark
+    public String legacyInstantToString() {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                .withZone(ZoneId.systemDefault());
+        return formatter.format(instant);
+    }
+
+    @Benchmark
+    public Instant legacyStringToInstant() {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                .withZone(ZoneId.systemDefault());
+        return LocalDateTime.parse(stringDate, formatter).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    @Benchmark
+    public Instant legacyNow() {
+        return LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
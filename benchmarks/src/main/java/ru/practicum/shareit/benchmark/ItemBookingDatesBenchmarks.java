@@ -0,0 +1,91 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.querydsl.QSort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingDatesView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.model.QBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// последняя и следующая бронь по всем вещам владельца: перебор всех броней, агрегирующий запрос и сводка
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBookingDatesBenchmarks {
+
+    private BookingRepository bookingRepository;
+    private ItemBookingSummaryService itemBookingSummaryService;
+    private ItemService itemService;
+    private DateMapper dateMapper;
+    private List<Item> items;
+    private List<Long> itemIds;
+    private Long ownerId;
+
+    @Setup
+    public void setUp(ShareItServerState server) {
+        bookingRepository = server.getBean(BookingRepository.class);
+        itemBookingSummaryService = server.getBean(ItemBookingSummaryService.class);
+        itemService = server.getBean(ItemService.class);
+        dateMapper = server.getBean(DateMapper.class);
+        items = server.items;
+        itemIds = items.stream().map(Item::getId).toList();
+        ownerId = server.ownerId;
+    }
+
+    // прежний способ: все брони всех вещей и проход по ним в памяти
+    @Benchmark
+    public Map<Long, Instant[]> scanAllBookings() {
+        Instant now = dateMapper.now();
+        List<Booking> bookings = bookingRepository.findByItemIn(items, new QSort(QBooking.booking.start.asc()));
+        Map<Long, Instant[]> dates = new HashMap<>();
+        for (Booking booking : bookings) {
+            Instant[] itemDates = dates.computeIfAbsent(booking.getItem().getId(), id -> new Instant[2]);
+            if (booking.getEnd().isBefore(now)) {
+                itemDates[0] = booking.getEnd();
+            }
+            if (itemDates[1] == null && now.isBefore(booking.getStart())) {
+                itemDates[1] = booking.getStart();
+            }
+        }
+        return dates;
+    }
+
+    @Benchmark
+    public List<ItemBookingDatesView> aggregateQuery() {
+        return bookingRepository.findBookingDatesByItemIdIn(itemIds, dateMapper.now());
+    }
+
+    @Benchmark
+    public Map<Long, ItemBookingSummary> maintainedSummary() {
+        return itemBookingSummaryService.getSummaries(itemIds);
+    }
+
+    @Benchmark
+    public List<ItemWithCommentsDto> ownerItems() {
+        return itemService.getItems(ownerId);
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.comment.mapper.CommentMapperImpl;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.model.CommentView;
+import ru.practicum.shareit.config.ClockConfig;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.mapper.ItemRequestMapperImpl;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmarks {
+
+    private static final int COMMENTS_PER_ITEM = 10;
+    private static final int ITEMS_PER_REQUEST = 10;
+
+    private AnnotationConfigApplicationContext context;
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private CommentMapper commentMapper;
+    private ItemRequestMapper itemRequestMapper;
+
+    private Booking booking;
+    private Item item;
+    private Comment comment;
+    private List<CommentView> commentViews;
+    private ItemRequest itemRequest;
+    private List<Item> requestItems;
+
+    @Setup
+    public void setUp() {
+        // только мапперы и DateMapper, без JPA и web
+        context = new AnnotationConfigApplicationContext(
+                ClockConfig.class,
+                DateMapper.class,
+                BookingMapperImpl.class,
+                CommentMapperImpl.class,
+                ItemMapperImpl.class,
+                ItemRequestMapperImpl.class
+        );
+        bookingMapper = context.getBean(BookingMapper.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        commentMapper = context.getBean(CommentMapper.class);
+        itemRequestMapper = context.getBean(ItemRequestMapper.class);
+
+        User owner = user(1L, "owner");
+        User booker = user(2L, "booker");
+        item = item(1L, owner);
+
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(Instant.now().plus(1, ChronoUnit.DAYS));
+        booking.setEnd(Instant.now().plus(2, ChronoUnit.DAYS));
+
+        comment = new Comment();
+        comment.setId(1L);
+        comment.setItem(item);
+        comment.setAuthor(booker);
+        comment.setText("Comment text");
+
+        commentViews = IntStream.range(0, COMMENTS_PER_ITEM)
+                .mapToObj(i -> commentView((long) i, item.getId()))
+                .toList();
+
+        itemRequest = new ItemRequest();
+        itemRequest.setId(1L);
+        itemRequest.setAuthor(booker);
+        itemRequest.setDescription("Request description");
+        requestItems = IntStream.range(0, ITEMS_PER_REQUEST)
+                .mapToObj(i -> item((long) i, owner))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public ItemWithCommentsDto itemWithCommentsToDto() {
+        return itemMapper.toDto(item, commentViews);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return commentMapper.toDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestWithItemsToDto() {
+        return itemRequestMapper.toDto(itemRequest, requestItems);
+    }
+
+    private static User user(Long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    private static Item item(Long id, User owner) {
+        Item item = new Item();
+        item.setId(id);
+        item.setUser(owner);
+        item.setName("Item " + id);
+        item.setDescription("Description " + id);
+        item.setAvailable(true);
+        return item;
+    }
+
+    private static CommentView commentView(Long id, Long itemId) {
+        Instant created = Instant.now();
+        return new CommentView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public String getText() {
+                return "Comment " + id;
+            }
+
+            @Override
+            public String getAuthorName() {
+                return "author";
+            }
+
+            @Override
+            public Instant getCreated() {
+                return created;
+            }
+        };
+    }
+}
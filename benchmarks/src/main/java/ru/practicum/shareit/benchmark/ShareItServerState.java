@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// сервер на H2 в памяти (профиль test) с заполненными данными, общий для всех потоков одного форка
+@State(Scope.Benchmark)
+public class ShareItServerState {
+
+    static final int ITEMS = 100;
+    static final int BOOKERS = 100;
+    static final int BOOKINGS_PER_BOOKER = 40;
+
+    ConfigurableApplicationContext context;
+    Long ownerId;
+    Long bookerId;
+    List<Item> items;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(
+                        // отладочное логирование SQL и транзакций из application.properties искажает замеры
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.transaction.interceptor=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.springframework.web=OFF",
+                        "--logging.level.org.zalando.logbook=OFF",
+                        "--logging.level.ru.practicum=WARN",
+                        // фоновые задачи (разбор просроченных броней, outbox) меняли бы данные во время замеров,
+                        // например переводили бы засеянные WAITING брони в EXPIRED
+                        "--shareit.scheduling.enabled=false"
+                );
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingService bookingService = context.getBean(BookingService.class);
+
+        User owner = userRepository.save(user("owner"));
+        ownerId = owner.getId();
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(item(owner, i)));
+        }
+        // брони идут через сервис, чтобы сводки по вещам были согласованы с бронями
+        LocalDateTime now = LocalDateTime.now();
+        for (int b = 0; b < BOOKERS; b++) {
+            User booker = userRepository.save(user("booker" + b));
+            if (bookerId == null) {
+                bookerId = booker.getId();
+            }
+            for (int i = 0; i < BOOKINGS_PER_BOOKER; i++) {
+                Item item = items.get((b + i) % ITEMS);
+                // у каждого арендатора половина броней в прошлом, половина в будущем
+                LocalDateTime start = now.plusDays(i - BOOKINGS_PER_BOOKER / 2).plusHours(b);
+                bookingService.create(booker.getId(),
+                        new NewBookingRequest(item.getId(), start, start.plusHours(1)));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    private static Item item(User owner, int i) {
+        Item item = new Item();
+        item.setUser(owner);
+        item.setName("Item " + i);
+        item.setDescription("Description " + i);
+        item.setAvailable(true);
+        return item;
+    }
+}
@@ -12,12 +12,14 @@ public class GetBookingsRequest {
     private BookingState state;
     private Integer from;
     private Integer size;
+    private String cursor;
 
     public Map<String, Object> buildParameters() {
         return Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor != null ? cursor : ""
         );
     }
 }
@@ -2,4 +2,7 @@ package ru.practicum.shareit.constant;
 
 public class ValidationConstant {
     public static final int COMMENT_MAX_SIZE = 512;
+    public static final int IMPORT_MAX_SIZE = 1000;
+    public static final int BATCH_MAX_SIZE = 500;
+    public static final int PAGE_MAX_SIZE = 100;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import ru.practicum.shareit.validation.NotBlankOrNull;
+
+// элемент PATCH /items/batch: те же поля, что в UpdateItemRequest, и id изменяемой вещи
+@Data
+public class ItemBatchUpdateRequest {
+    @NotNull
+    private Long id;
+    @NotBlankOrNull
+    private String name;
+    @NotBlankOrNull
+    private String description;
+    private Boolean available;
+}
@@ -6,10 +6,13 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.GetBookingsRequest;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 
 import java.util.Map;
 
@@ -18,21 +21,33 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            HttpComponentsClientHttpRequestFactory requestFactory,
+            RequestCoalescer coalescer,
+            ResponseCache responseCache
+    ) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                coalescer,
+                responseCache
         );
     }
 
     public ResponseEntity<Object> getBookings(GetBookingsRequest request) {
-        return get("?state={state}&from={from}&size={size}", request.getUserId(), request.buildParameters());
+        return get("?state={state}&from={from}&size={size}&cursor={cursor}", request.getUserId(), request.buildParameters());
     }
 
     public ResponseEntity<Object> getBookingsByOwner(GetBookingsRequest request) {
-        return get("/owner?state={state}&from={from}&size={size}", request.getUserId(), request.buildParameters());
+        return get("/owner?state={state}&from={from}&size={size}&cursor={cursor}", request.getUserId(), request.buildParameters());
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportByOwner(long userId) {
+        return stream("/owner/export", userId);
     }
 
     public ResponseEntity<Object> bookItem(long userId, NewBookingRequest requestDto) {
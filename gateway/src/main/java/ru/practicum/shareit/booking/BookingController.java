@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -16,10 +17,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.GetBookingsRequest;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 
+import static ru.practicum.shareit.constant.ValidationConstant.PAGE_MAX_SIZE;
 import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
 
 
@@ -36,12 +39,13 @@ public class BookingController {
 			@RequestHeader(HEADER_X_SHARER_USER_ID) long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+			@Positive @Max(PAGE_MAX_SIZE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor
 	) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(new GetBookingsRequest(userId, state, from, size));
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+		return bookingClient.getBookings(new GetBookingsRequest(userId, state, from, size, cursor));
 	}
 
 	@GetMapping("/owner")
@@ -49,11 +53,18 @@ public class BookingController {
 			@RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+			@Positive @Max(PAGE_MAX_SIZE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "cursor", required = false) String cursor
 	) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		return bookingClient.getBookingsByOwner(new GetBookingsRequest(userId, state, from, size));
+		return bookingClient.getBookingsByOwner(new GetBookingsRequest(userId, state, from, size, cursor));
+	}
+
+	@GetMapping("/owner/export")
+	public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader(HEADER_X_SHARER_USER_ID) long userId) {
+		log.info("Export bookings of owner userId={}", userId);
+		return bookingClient.exportByOwner(userId);
 	}
 
 	@PostMapping
@@ -1,24 +1,46 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authenticate", "proxy-authorization", "content-length"
+    );
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache responseCache;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, RequestCoalescer coalescer, ResponseCache responseCache) {
         this.rest = rest;
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -29,8 +51,27 @@ public class BaseClient {
         return get(path, userId, null);
     }
 
+    // ответ зависит от адреса с параметрами и пользователя, по ним и объединяем одновременные запросы
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        String key = uri + " " + userId;
+        return coalescer.execute(key, () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+    }
+
+    // отдельный ресурс без параметров и пользователя: свежий ответ отдается из кэша,
+    // устаревший перепроверяется на сервере по ETag
+    protected ResponseEntity<Object> getCached(String path) {
+        String key = rest.getUriTemplateHandler().expand(path).toString();
+        ResponseCache.CachedResponse cached = responseCache.getFresh(key);
+        if (cached != null) {
+            return prepareGatewayResponse(new ResponseEntity<>(cached.body(), cached.headers(), cached.status()));
+        }
+        return coalescer.execute(key, () -> revalidate(key, path));
+    }
+
+    // вызывается после изменения ресурса через шлюз
+    protected void evictCached(String path) {
+        responseCache.evict(rest.getUriTemplateHandler().expand(path).toString());
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -85,20 +126,90 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    // выгрузка NDJSON: тело ответа сервера не читается в память, а копируется клиенту по мере поступления.
+    // Ответ с ошибкой короткий, его пересылаем целиком с исходным статусом
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId) {
+        URI uri = rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().set(HEADER_X_SHARER_USER_ID, String.valueOf(userId));
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+            response = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+        try {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                    .headers(passThroughHeaders(response.getHeaders()));
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                try (response) {
+                    byte[] body = response.getBody().readAllBytes();
+                    return responseBuilder.body(out -> out.write(body));
+                }
+            }
+            return responseBuilder.body(out -> copy(response, out));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    // отправляем клиенту каждую прочитанную порцию, не дожидаясь заполнения буфера Tomcat
+    private static void copy(ClientHttpResponse response, OutputStream out) throws IOException {
+        try (response; InputStream in = response.getBody()) {
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        }
+    }
+
+    // тело ответа сервера передается клиенту как есть, массивом байт, без разбора JSON в объекты
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return prepareGatewayResponse(exchange(method, path, parameters, requestEntity));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<byte[]> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity) {
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                return rest.exchange(path, method, requestEntity, byte[].class, parameters);
             }
+            return rest.exchange(path, method, requestEntity, byte[].class);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    // запрос к серверу с If-None-Match, если ответ уже есть в кэше. На 304 отдаем сохраненный ответ
+    private ResponseEntity<Object> revalidate(String key, String path) {
+        long evictions = responseCache.evictions();
+        ResponseCache.CachedResponse cached = responseCache.get(key);
+        HttpHeaders headers = defaultHeaders(null);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+        ResponseEntity<byte[]> response = exchange(HttpMethod.GET, path, null, new HttpEntity<>(headers));
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            responseCache.recordRevalidation(false);
+            responseCache.refresh(key, cached, evictions);
+            return prepareGatewayResponse(new ResponseEntity<>(cached.body(), cached.headers(), cached.status()));
+        }
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCode().is2xxSuccessful() && etag != null) {
+            if (cached != null) {
+                responseCache.recordRevalidation(true);
+            }
+            responseCache.put(key, response, etag, evictions);
+        } else {
+            responseCache.evict(key);
+        }
+        return prepareGatewayResponse(response);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -111,12 +222,15 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(passThroughHeaders(response.getHeaders()))
+                    .body(response.getBody());
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(passThroughHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -124,4 +238,18 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    // заголовки соединения и длины относятся к ответу сервера, для ответа шлюза их выставит Tomcat
+    private static HttpHeaders passThroughHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        if (headers == null) {
+            return result;
+        }
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                result.put(name, values);
+            }
+        });
+        return result;
+    }
 }
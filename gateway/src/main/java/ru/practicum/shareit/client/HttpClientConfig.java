@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+
+// один пул соединений к серверу на все клиенты шлюза
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(
+            @Value("${shareit-server.pool.max-total:1000}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route:1000}") int maxPerRoute,
+            @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.socket-timeout:30s}") Duration socketTimeout,
+            @Value("${shareit-server.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            @Value("${shareit-server.pool.time-to-live:5m}") Duration timeToLive
+    ) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(socketTimeout))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerHttpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${shareit-server.pool.acquire-timeout:5s}") Duration acquireTimeout,
+            @Value("${shareit-server.response-timeout:30s}") Duration responseTimeout,
+            @Value("${shareit-server.pool.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-server.pool.max-idle-time:1m}") Duration maxIdleTime
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        // используется, если сервер не прислал Keep-Alive
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(maxIdleTime))
+                .build();
+    }
+
+    // фабрика общая, поэтому закрывать клиент при остановке должен только бин клиента
+    @Bean(destroyMethod = "")
+    public HttpComponentsClientHttpRequestFactory shareItServerRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManagerMetricsBinder shareItServerPoolMetrics(
+            PoolingHttpClientConnectionManager connectionManager,
+            MeterRegistry meterRegistry
+    ) {
+        PoolingHttpClientConnectionManagerMetricsBinder binder =
+                new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+        binder.bindTo(meterRegistry);
+        return binder;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// одинаковые GET-запросы, пришедшие одновременно, ждут один общий запрос к серверу
+@Component
+public class RequestCoalescer {
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter leaders;
+    private final Counter followers;
+
+    public RequestCoalescer(
+            @Value("${shareit-server.coalescing.enabled:true}") boolean enabled,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        // доля запросов без своего вызова сервера: followers / (leaders + followers)
+        this.leaders = Counter.builder("shareit.gateway.coalescing.requests")
+                .description("GET requests that made their own call to the server")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder("shareit.gateway.coalescing.requests")
+                .description("GET requests that reused an in-flight call to the server")
+                .tag("role", "follower")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct GET calls to the server currently in flight")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<Object> execute(String key, Supplier<ResponseEntity<Object>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<ResponseEntity<Object>> future = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            followers.increment();
+            return join(existing);
+        }
+        leaders.increment();
+        try {
+            ResponseEntity<Object> response = call.get();
+            future.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            // ключ снимается сразу после ответа: это объединение одновременных запросов, а не кэш
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static ResponseEntity<Object> join(CompletableFuture<ResponseEntity<Object>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
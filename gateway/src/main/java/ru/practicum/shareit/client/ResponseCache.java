@@ -0,0 +1,102 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ответы сервера с ETag. В течение max-age ответ отдается без обращения к серверу,
+// после этого перепроверяется запросом с If-None-Match
+@Component
+public class ResponseCache {
+    private final Cache<String, CachedResponse> cache;
+    private final long maxAgeNanos;
+    // растет при каждом сбросе записи: ответ, запрошенный до сброса, не считается свежим
+    private final AtomicLong evictions = new AtomicLong();
+    private final Counter fresh;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public ResponseCache(
+            @Value("${shareit-server.response-cache.max-size:10000}") long maxSize,
+            @Value("${shareit-server.response-cache.max-age:5s}") Duration maxAge,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.maxAgeNanos = maxAge.toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "shareit-server-responses");
+        this.fresh = Counter.builder("shareit.gateway.response.cache.fresh")
+                .description("Cached responses served within max-age without calling the server")
+                .register(meterRegistry);
+        this.notModified = Counter.builder("shareit.gateway.response.cache.revalidations")
+                .description("Cached responses confirmed by the server with 304")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+        this.modified = Counter.builder("shareit.gateway.response.cache.revalidations")
+                .description("Cached responses replaced by a new server response")
+                .tag("result", "modified")
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    // ответ, который можно отдать без запроса к серверу, или null
+    public CachedResponse getFresh(String key) {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached == null || System.nanoTime() - cached.expiresAt() >= 0) {
+            return null;
+        }
+        fresh.increment();
+        return cached;
+    }
+
+    // снимок счетчика сбросов берется до запроса к серверу и передается в put/refresh
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public void put(String key, ResponseEntity<byte[]> response, String etag, long evictionsBefore) {
+        cache.put(key, new CachedResponse(etag, response.getStatusCode(), response.getHeaders(), response.getBody(),
+                expiresAt(evictionsBefore)));
+    }
+
+    // сервер подтвердил сохраненный ответ через 304: продлеваем его свежесть
+    public void refresh(String key, CachedResponse cached, long evictionsBefore) {
+        cache.asMap().replace(key, cached, new CachedResponse(cached.etag(), cached.status(), cached.headers(),
+                cached.body(), expiresAt(evictionsBefore)));
+    }
+
+    // сбрасывает запись только в кэше этого шлюза: другие экземпляры отдают прежний ответ не дольше max-age
+    public void evict(String key) {
+        evictions.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    public void recordRevalidation(boolean wasModified) {
+        (wasModified ? modified : notModified).increment();
+    }
+
+    // ответ мог быть прочитан на сервере до изменения, которое уже сбросило кэш. Такой ответ сохраняем
+    // для перепроверки по ETag, но свежим не считаем
+    private long expiresAt(long evictionsBefore) {
+        long now = System.nanoTime();
+        return evictions.get() == evictionsBefore ? now + maxAgeNanos : now;
+    }
+
+    public record CachedResponse(String etag, HttpStatusCode status, HttpHeaders headers, byte[] body, long expiresAt) {
+    }
+}
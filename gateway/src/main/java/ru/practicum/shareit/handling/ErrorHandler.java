@@ -0,0 +1,28 @@
+package ru.practicum.shareit.handling;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// ошибки проверки параметров контроллеров с @Validated (в том числе элементов пакетов) - это 400, а не 500
+@RestControllerAdvice
+@Slf4j
+public class ErrorHandler {
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ValidationErrorResponse onConstraintValidationException(ConstraintViolationException e) {
+        ValidationErrorResponse error = new ValidationErrorResponse("Ошибка валидации Constraint");
+        for (ConstraintViolation<?> violation : e.getConstraintViolations()) {
+            error.getViolations().add(
+                    new Violation(violation.getPropertyPath().toString(), violation.getMessage())
+            );
+        }
+        log.error("Validation errors {} ", error, e);
+        return error;
+    }
+}
@@ -6,12 +6,17 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.comment.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.ItemBatchUpdateRequest;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,21 +24,41 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            HttpComponentsClientHttpRequestFactory requestFactory,
+            RequestCoalescer coalescer,
+            ResponseCache responseCache
+    ) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                coalescer,
+                responseCache
         );
     }
 
     public ResponseEntity<Object> getItems(Long userId) {
-        return get("");
+        return get("", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportByOwner(long userId) {
+        return stream("/export", userId);
     }
 
     public ResponseEntity<Object> getById(Long itemId) {
-        return get("/" + itemId);
+        return getCached("/" + itemId);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, String from, String to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from == null ? "" : from,
+                "to", to == null ? "" : to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
     public ResponseEntity<Object> create(Long userId, NewItemRequest request) {
@@ -41,21 +66,39 @@ public class ItemClient extends BaseClient {
     }
 
     public ResponseEntity<Object> update(Long userId, Long itemId, UpdateItemRequest request) {
-        return patch("/" + itemId, userId, request);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, request);
+        evictCached("/" + itemId);
+        return response;
+    }
+
+    public ResponseEntity<Object> createBatch(Long userId, List<NewItemRequest> requests) {
+        return post("/batch", userId, requests);
+    }
+
+    // сервер сообщает результат по каждой вещи, поэтому из кэша убираются все вещи пакета
+    public ResponseEntity<Object> updateBatch(Long userId, List<ItemBatchUpdateRequest> requests) {
+        ResponseEntity<Object> response = patch("/batch", userId, requests);
+        requests.forEach(request -> evictCached("/" + request.getId()));
+        return response;
     }
 
     public void remove(Long userId, Long itemId) {
         delete("/" + itemId, userId);
+        evictCached("/" + itemId);
     }
 
-    public ResponseEntity<Object> search(String text) {
+    public ResponseEntity<Object> search(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return patch("/search?text={text}", parameters);
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, NewCommentRequest request) {
-        return post("/" + itemId + "/comment", userId, request);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, request);
+        evictCached("/" + itemId);
+        return response;
     }
 }
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -15,15 +19,21 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.comment.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.ItemBatchUpdateRequest;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.util.List;
+
+import static ru.practicum.shareit.constant.ValidationConstant.BATCH_MAX_SIZE;
 import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@Validated
 public class ItemController {
     private final ItemClient itemClient;
 
@@ -32,11 +42,25 @@ public class ItemController {
         return itemClient.getItems(userId);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(HEADER_X_SHARER_USER_ID) Long userId) {
+        return itemClient.exportByOwner(userId);
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getById(@PathVariable Long itemId) {
         return itemClient.getById(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to
+    ) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
     public ResponseEntity<Object> create(
@@ -46,6 +70,22 @@ public class ItemController {
         return itemClient.create(userId, request);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBatch(
+            @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
+            @RequestBody @Size(min = 1, max = BATCH_MAX_SIZE) List<@Valid NewItemRequest> requests
+    ) {
+        return itemClient.createBatch(userId, requests);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBatch(
+            @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
+            @RequestBody @Size(min = 1, max = BATCH_MAX_SIZE) List<@Valid ItemBatchUpdateRequest> requests
+    ) {
+        return itemClient.updateBatch(userId, requests);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(
             @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
@@ -64,8 +104,12 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text) {
-        return itemClient.search(text);
+    public ResponseEntity<Object> search(
+            @RequestParam String text,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return itemClient.search(text, from, size);
     }
 
     // Comments
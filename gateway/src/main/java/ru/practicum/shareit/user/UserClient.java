@@ -8,6 +8,8 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 
@@ -16,12 +18,20 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            HttpComponentsClientHttpRequestFactory requestFactory,
+            RequestCoalescer coalescer,
+            ResponseCache responseCache
+    ) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                coalescer,
+                responseCache
         );
     }
 
@@ -30,7 +40,7 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getById(Long userId) {
-        return get("/" + userId);
+        return getCached("/" + userId);
     }
 
     public ResponseEntity<Object> create(NewUserRequest user) {
@@ -38,10 +48,13 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> update(Long userId, UpdateUserRequest request) {
-        return patch("/" + userId, request);
+        ResponseEntity<Object> response = patch("/" + userId, request);
+        evictCached("/" + userId);
+        return response;
     }
 
     public void removeUser(Long userId) {
         delete("/" + userId);
+        evictCached("/" + userId);
     }
 }
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTests {
+
+    private static final int REQUESTS = 8;
+    private static final String KEY = "http://localhost:9090/items/search?text=drill 1";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(true, meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_callServerOnce_identicalRequestsAreConcurrent() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ResponseEntity<Object> response = ResponseEntity.ok("items");
+
+        // When
+        List<Future<ResponseEntity<Object>>> results = submitAll(() -> {
+            calls.incrementAndGet();
+            await(release);
+            return response;
+        });
+        awaitFollowers();
+        release.countDown();
+
+        // Then
+        for (Future<ResponseEntity<Object>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(response);
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("follower")).isEqualTo(REQUESTS - 1);
+        assertThat(meterRegistry.get("shareit.gateway.coalescing.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void execute_throwToFollowers_serverCallFailed() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("server is unavailable");
+
+        // When
+        List<Future<ResponseEntity<Object>>> results = submitAll(() -> {
+            await(release);
+            throw failure;
+        });
+        awaitFollowers();
+        release.countDown();
+
+        // Then
+        for (Future<ResponseEntity<Object>> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseReference(failure);
+        }
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("follower")).isEqualTo(REQUESTS - 1);
+    }
+
+    @Test
+    void execute_callServerAgain_previousCallCompleted() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        coalescer.execute(KEY, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // When
+        ResponseEntity<Object> response = coalescer.execute(KEY, () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        // Then
+        assertThat(response.getBody()).isEqualTo(2);
+        assertThat(count("leader")).isEqualTo(2);
+        assertThat(count("follower")).isZero();
+    }
+
+    private List<Future<ResponseEntity<Object>>> submitAll(Supplier<ResponseEntity<Object>> call) {
+        List<Future<ResponseEntity<Object>>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            results.add(executor.submit(() -> coalescer.execute(KEY, call)));
+        }
+        return results;
+    }
+
+    // ведущий запрос держим, пока остальные не присоединятся к нему
+    private void awaitFollowers() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("follower") < REQUESTS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double count(String role) {
+        return meterRegistry.get("shareit.gateway.coalescing.requests").tag("role", role).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.response.DefaultResponseCreator;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ResponseCacheTests {
+
+    private static final String URL = "http://localhost:9090/users/1";
+    private static final String ETAG = "\"0a1b2c\"";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RestTemplate rest = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+
+    @Test
+    void getCached_skipServer_responseIsFresh() {
+        // Given
+        CachingClient client = createClient(Duration.ofMinutes(1));
+        server.expect(once(), requestTo(URL)).andRespond(userResponse("Name"));
+        client.getById();
+
+        // When
+        ResponseEntity<Object> response = client.getById();
+
+        // Then
+        server.verify();
+        assertThat(body(response)).isEqualTo("{\"name\":\"Name\"}");
+        assertThat(meterRegistry.get("shareit.gateway.response.cache.fresh").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getCached_returnCachedBody_serverAnswersNotModified() {
+        // Given
+        CachingClient client = createClient(Duration.ZERO);
+        server.expect(once(), requestTo(URL)).andRespond(userResponse("Name"));
+        server.expect(once(), requestTo(URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, ETAG));
+        client.getById();
+
+        // When
+        ResponseEntity<Object> response = client.getById();
+
+        // Then
+        server.verify();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(response)).isEqualTo("{\"name\":\"Name\"}");
+        assertThat(meterRegistry.get("shareit.gateway.response.cache.revalidations")
+                .tag("result", "not_modified").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getCached_callServer_userWasUpdatedThroughGateway() {
+        // Given
+        CachingClient client = createClient(Duration.ofMinutes(1));
+        server.expect(once(), requestTo(URL)).andRespond(userResponse("Name"));
+        server.expect(once(), requestTo(URL))
+                .andRespond(withSuccess("{\"name\":\"NewName\"}", MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"3d4e5f\""));
+        client.getById();
+
+        // When
+        client.evict();
+        ResponseEntity<Object> response = client.getById();
+
+        // Then
+        server.verify();
+        assertThat(body(response)).isEqualTo("{\"name\":\"NewName\"}");
+    }
+
+    @Test
+    void put_keepEntryStale_evictedDuringServerCall() {
+        // Given
+        ResponseCache cache = new ResponseCache(100, Duration.ofMinutes(1), meterRegistry);
+        long evictions = cache.evictions();
+        cache.evict(URL);
+
+        // When
+        cache.put(URL, ResponseEntity.ok(new byte[0]), ETAG, evictions);
+
+        // Then
+        assertThat(cache.get(URL)).isNotNull();
+        assertThat(cache.getFresh(URL)).isNull();
+    }
+
+    private CachingClient createClient(Duration maxAge) {
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:9090/users"));
+        return new CachingClient(rest, new RequestCoalescer(true, meterRegistry),
+                new ResponseCache(100, maxAge, meterRegistry));
+    }
+
+    private static DefaultResponseCreator userResponse(String name) {
+        return withSuccess("{\"name\":\"" + name + "\"}", MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, ETAG);
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static class CachingClient extends BaseClient {
+
+        CachingClient(RestTemplate rest, RequestCoalescer coalescer, ResponseCache responseCache) {
+            super(rest, coalescer, responseCache);
+        }
+
+        ResponseEntity<Object> getById() {
+            return getCached("/1");
+        }
+
+        void evict() {
+            evictCached("/1");
+        }
+    }
+}
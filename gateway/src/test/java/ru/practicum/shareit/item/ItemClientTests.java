@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
+
+class ItemClientTests {
+
+    private static final String URL = "http://localhost:9090/items";
+
+    private final MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemClient client = new ItemClient(
+            "http://localhost:9090",
+            new RestTemplateBuilder(customizer),
+            new HttpComponentsClientHttpRequestFactory(),
+            new RequestCoalescer(true, meterRegistry),
+            new ResponseCache(100, Duration.ZERO, meterRegistry)
+    );
+
+    @Test
+    void getItems_returnOwnItems_ownersAskOneAfterAnother() {
+        // Given
+        customizer.getServer().expect(once(), requestTo(URL))
+                .andExpect(header(HEADER_X_SHARER_USER_ID, "1"))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+        customizer.getServer().expect(once(), requestTo(URL))
+                .andExpect(header(HEADER_X_SHARER_USER_ID, "2"))
+                .andRespond(withSuccess("[{\"id\":2}]", MediaType.APPLICATION_JSON));
+
+        // When
+        ResponseEntity<Object> first = client.getItems(1L);
+        ResponseEntity<Object> second = client.getItems(2L);
+
+        // Then
+        customizer.getServer().verify();
+        assertThat(body(first)).isEqualTo("[{\"id\":1}]");
+        assertThat(body(second)).isEqualTo("[{\"id\":2}]");
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
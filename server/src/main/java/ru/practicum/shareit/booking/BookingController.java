@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,13 +16,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingImportRequest;
+import ru.practicum.shareit.booking.dto.BookingsPage;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.constant.ValidationConstant.IMPORT_MAX_SIZE;
+import static ru.practicum.shareit.constant.WebConstant.HEADER_X_NEXT_CURSOR;
 import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
 
 @RestController
@@ -38,19 +46,36 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookings(
+    public ResponseEntity<List<BookingDto>> getBookings(
             @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
-            @RequestParam(defaultValue = "ALL") String state
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        return bookingService.getBookingsByBooker(userId, BookingState.from(state));
+        return toResponse(bookingService.getBookingsByBooker(userId, BookingState.from(state), from, size, cursor));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByOwner(
+    public ResponseEntity<List<BookingDto>> getBookingsByOwner(
             @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
-            @RequestParam(defaultValue = "ALL") String state
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        return bookingService.getBookingsByOwner(userId, BookingState.from(state));
+        return toResponse(bookingService.getBookingsByOwner(userId, BookingState.from(state), from, size, cursor));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader(HEADER_X_SHARER_USER_ID) Long userId) {
+        return toNdjsonResponse(bookingService.exportByOwner(userId));
+    }
+
+    // вся таблица бронирований, как и импорт - без пользователя. Служебная выгрузка: шлюз ее не публикует
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        return toNdjsonResponse(bookingService.exportAll());
     }
 
     @ResponseStatus(HttpStatus.CREATED)
@@ -62,6 +87,14 @@ public class BookingController {
         return bookingService.create(userId, request);
     }
 
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/import")
+    public List<BookingDto> importBookings(
+            @RequestBody @Size(min = 1, max = IMPORT_MAX_SIZE) List<@Valid BookingImportRequest> requests
+    ) {
+        return bookingService.importBookings(requests);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(
             @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
@@ -70,4 +103,18 @@ public class BookingController {
     ) {
         return bookingService.approve(userId, bookingId, approved);
     }
+
+    private static ResponseEntity<List<BookingDto>> toResponse(BookingsPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(HEADER_X_NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> toNdjsonResponse(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+// бронь при переносе данных: может быть в прошлом и сразу с итоговым статусом
+@Data
+public class BookingImportRequest {
+    @NotNull
+    private Long bookerId;
+    @NotNull
+    private Long itemId;
+    @NotNull
+    private LocalDateTime start;
+    @NotNull
+    private LocalDateTime end;
+    @NotNull
+    private BookingStatus status;
+}
@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingImportRequest;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
@@ -21,4 +22,8 @@ public interface BookingMapper {
     @Mapping(target = "createDate", ignore = true)
     @Mapping(target = "status", ignore = true)
     Booking update(@MappingTarget Booking booking, User booker, Item item, NewBookingRequest request);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createDate", ignore = true)
+    Booking toBooking(BookingImportRequest request, User booker, Item item);
 }
@@ -9,7 +9,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import ru.practicum.shareit.item.model.Item;
@@ -23,7 +25,8 @@ import java.time.Instant;
 @Table(name = "bookings", schema = "public")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -34,6 +37,12 @@ public class Booking {
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    // владелец вещи, копия items.user_id: лента владельца читается одним индексом (owner_id, create_date, id).
+    // Задается вместе с вещью, владелец у вещи не меняется
+    @Setter(AccessLevel.NONE)
+    @Column(name = "owner_id")
+    private Long ownerId;
+
     @Column(name = "create_date")
     private Instant createDate = Instant.now();
 
@@ -45,4 +54,9 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status = BookingStatus.WAITING;
+
+    public void setItem(Item item) {
+        this.item = item;
+        this.ownerId = item != null && item.getUser() != null ? item.getUser().getId() : null;
+    }
 }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+@Getter
+@RequiredArgsConstructor
+public class BookingCursor {
+    private static final String SEPARATOR = ":";
+
+    private final Instant createDate;
+    private final Long id;
+
+    public static BookingCursor of(Booking booking) {
+        return new BookingCursor(booking.getCreateDate(), booking.getId());
+    }
+
+    public String encode() {
+        String value = createDate.getEpochSecond() + SEPARATOR + createDate.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(value);
+            }
+            Instant createDate = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new BookingCursor(createDate, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            String message = String.format("Wrong cursor: %s", cursor);
+            throw new ValidationException(message);
+        }
+    }
+}
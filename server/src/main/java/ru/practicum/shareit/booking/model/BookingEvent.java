@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// запись outbox: пишется в одной транзакции с изменением брони, id служит позицией в потоке событий
+@Entity
+@Getter
+@Setter
+@Table(name = "booking_events", schema = "public")
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private BookingEventType type;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @Column(name = "start_date")
+    private Instant start;
+
+    @Column(name = "end_date")
+    private Instant end;
+
+    // время записи по часам сервера (DateMapper): с ним BookingEventDispatcher сравнивает возраст пропусков в id
+    private Instant created;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingEventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    BOOKING_EXPIRED
+}
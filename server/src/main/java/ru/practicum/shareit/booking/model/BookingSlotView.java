@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.Instant;
+
+public interface BookingSlotView {
+    Long getItemId();
+
+    Instant getStart();
+
+    Instant getEnd();
+}
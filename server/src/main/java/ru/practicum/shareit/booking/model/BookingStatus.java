@@ -3,5 +3,7 @@ package ru.practicum.shareit.booking.model;
 public enum BookingStatus {
     WAITING,
     APPROVED,
-    REJECTED
+    REJECTED,
+    // владелец не рассмотрел бронь до ее начала или за отведенное время, см. BookingExpirySweeper
+    EXPIRED
 }
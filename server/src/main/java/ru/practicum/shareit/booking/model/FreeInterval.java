@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+// свободный интервал [start, end) в календаре вещи
+@Getter
+@RequiredArgsConstructor
+public class FreeInterval {
+    private final Instant start;
+    private final Instant end;
+}
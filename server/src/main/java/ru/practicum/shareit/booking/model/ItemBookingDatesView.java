@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.Instant;
+
+public interface ItemBookingDatesView {
+    Long getItemId();
+
+    Instant getLastBooking();
+
+    Instant getNextBooking();
+
+    Instant getNextEnd();
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// сводка по бронированиям вещи, обновляется при изменении броней. Когда она устаревает по времени, даты досчитываются
+// при чтении и сохраняются по расписанию
+@Entity
+@Getter
+@Setter
+@Table(name = "item_booking_summaries", schema = "public")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_end")
+    private Instant lastBooking;
+
+    @Column(name = "next_booking_start")
+    private Instant nextBooking;
+
+    // ближайший момент, когда одна из броней начнется или закончится и даты сводки станут неактуальны
+    @Column(name = "refresh_at")
+    private Instant refreshAt;
+
+    @Column(name = "waiting_count")
+    private long waitingCount;
+
+    @Column(name = "approved_count")
+    private long approvedCount;
+
+    @Column(name = "rejected_count")
+    private long rejectedCount;
+
+    // растет при каждом изменении: сохранение досчитанных дат не затирает сводку, измененную после ее чтения
+    @Version
+    @Column(name = "version")
+    private Long version;
+}
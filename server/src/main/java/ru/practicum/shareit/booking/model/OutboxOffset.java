@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// позиция получателя событий: id последнего обработанного события
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "outbox_offsets", schema = "public")
+public class OutboxOffset {
+    @Id
+    private String consumer;
+
+    @Column(name = "last_event_id")
+    private long lastEventId;
+
+    public OutboxOffset(String consumer, long lastEventId) {
+        this.consumer = consumer;
+        this.lastEventId = lastEventId;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    List<BookingEvent> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    // последнее событие старше created: идет по первичному ключу с конца и останавливается на первом подходящем
+    Optional<BookingEvent> findFirstByCreatedBeforeOrderByIdDesc(Instant created);
+}
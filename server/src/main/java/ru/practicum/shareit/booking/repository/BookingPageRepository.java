@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingPageRepository {
+    // страница без count-запроса: чтобы узнать про следующую страницу, запрашиваем limit + 1 строку
+    List<Booking> findPage(Predicate predicate, long offset, int limit, OrderSpecifier<?>... order);
+
+    // брони вещей владельца; predicate - дополнительные условия на бронь, может быть null
+    List<Booking> findOwnerPage(Long ownerId, Predicate predicate, long offset, int limit, OrderSpecifier<?>... order);
+
+    // выгрузка курсором в порядке id; поток нужно закрыть, читать - внутри транзакции
+    Stream<Booking> streamAll();
+
+    Stream<Booking> streamByOwner(Long ownerId);
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.booking.model.QBooking.booking;
+import static ru.practicum.shareit.item.model.QItem.item;
+import static ru.practicum.shareit.request.model.QItemRequest.itemRequest;
+import static ru.practicum.shareit.utils.NdjsonExporter.FETCH_SIZE;
+
+public class BookingPageRepositoryImpl implements BookingPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(Predicate predicate, long offset, int limit, OrderSpecifier<?>... order) {
+        return selectPage(offset, limit, order)
+                .where(predicate)
+                .fetch();
+    }
+
+    // владелец берется из bookings.owner_id: индекс ix_bookings_owner_id_create_date_id отдает брони всех вещей
+    // владельца уже в порядке ленты, страница после курсора не сортирует все его брони
+    @Override
+    public List<Booking> findOwnerPage(Long ownerId, Predicate predicate, long offset, int limit,
+                                       OrderSpecifier<?>... order) {
+        return selectPage(offset, limit, order)
+                .where(booking.ownerId.eq(ownerId), predicate)
+                .fetch();
+    }
+
+    @Override
+    public Stream<Booking> streamAll() {
+        return selectForExport()
+                .stream();
+    }
+
+    @Override
+    public Stream<Booking> streamByOwner(Long ownerId) {
+        return selectForExport()
+                .where(booking.ownerId.eq(ownerId))
+                .stream();
+    }
+
+    private JPAQuery<Booking> selectPage(long offset, int limit, OrderSpecifier<?>... order) {
+        return selectBookings()
+                .orderBy(order)
+                .offset(offset)
+                .limit(limit);
+    }
+
+    // без кэша второго уровня: выгрузка всей таблицы вытеснила бы из него часто читаемые вещи и пользователей
+    private JPAQuery<Booking> selectForExport() {
+        return selectBookings()
+                .orderBy(booking.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE);
+    }
+
+    // связи вещи (владелец, запрос и его автор) загружаются жадно: без fetch join на каждую вещь
+    // уходил бы отдельный select
+    private JPAQuery<Booking> selectBookings() {
+        return new JPAQueryFactory(entityManager)
+                .selectFrom(booking)
+                .join(booking.item, item).fetchJoin()
+                .join(item.user).fetchJoin()
+                .leftJoin(item.request, itemRequest).fetchJoin()
+                .leftJoin(itemRequest.author).fetchJoin()
+                .join(booking.booker).fetchJoin();
+    }
+}
@@ -1,17 +1,27 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSlotView;
+import ru.practicum.shareit.booking.model.ItemBookingDatesView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking>,
+        BookingPageRepository {
     @Query("select b " +
             "from Booking as b " +
             "join b.booker as bk " +
@@ -20,4 +30,37 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, Queryds
     Optional<Booking> findByBookerIdAndItemId(Long bookerId, Long itemId);
 
     List<Booking> findByItemIn(Collection<Item> items, Sort sort);
+
+    // последняя завершившаяся и ближайшая будущая бронь по каждой вещи одним агрегирующим запросом
+    @Query("select b.item.id as itemId, " +
+            "max(case when b.end < ?2 then b.end end) as lastBooking, " +
+            "min(case when b.start > ?2 then b.start end) as nextBooking, " +
+            "min(case when b.end > ?2 then b.end end) as nextEnd " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "group by b.item.id")
+    List<ItemBookingDatesView> findBookingDatesByItemIdIn(Collection<Long> itemIds, Instant now);
+
+    // подтвержденные брони, пересекающие интервал [from, to): исходные данные для календаря занятости
+    @Query("select b.item.id as itemId, b.start as start, b.end as end " +
+            "from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b.end > ?1 and b.start < ?2")
+    List<BookingSlotView> findApprovedSlots(Instant from, Instant to);
+
+    // подтверждение блокирует бронь: ее статус не поменяется между проверкой и сохранением
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id = ?1")
+    Optional<Booking> findByIdForUpdate(Long bookingId);
+
+    // WAITING брони, которые уже начались или ждут с createdBefore. Строки, заблокированные другим экземпляром
+    // сервера или подтверждением владельца, пропускаются (for update skip locked), поэтому разбор не ждет чужих блокировок.
+    // Тайм-аут блокировки -2 Hibernate понимает как SKIP LOCKED (константа LockOptions.SKIP_LOCKED устарела)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select b from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "and (b.start < ?1 or b.createDate < ?2) " +
+            "order by b.id")
+    List<Booking> findExpiredForUpdate(Instant now, Instant createdBefore, Pageable page);
 }
\ No newline at end of file
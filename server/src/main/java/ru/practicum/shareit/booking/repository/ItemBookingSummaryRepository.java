@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    List<ItemBookingSummary> findByItemIdIn(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId = ?1")
+    Optional<ItemBookingSummary> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId in ?1 order by s.itemId")
+    List<ItemBookingSummary> findByItemIdInForUpdate(Collection<Long> itemIds);
+
+    // устаревшие по времени сводки, начиная с самых старых
+    @Query("select s from ItemBookingSummary s where s.refreshAt <= ?1 order by s.refreshAt")
+    List<ItemBookingSummary> findStale(Instant now, Pageable page);
+
+    // обновляем даты, только если сводку не изменили после чтения (версия осталась прежней)
+    @Modifying
+    @Query("update ItemBookingSummary s " +
+            "set s.lastBooking = ?2, s.nextBooking = ?3, s.refreshAt = ?4, s.version = s.version + 1 " +
+            "where s.itemId = ?1 and s.version = ?5")
+    int updateDates(Long itemId, Instant lastBooking, Instant nextBooking, Instant refreshAt, Long expectedVersion);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.OutboxOffset;
+
+import java.util.Optional;
+
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    // несколько экземпляров сервера не доставляют одну пачку одному получателю параллельно
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from OutboxOffset o where o.consumer = ?1")
+    Optional<OutboxOffset> findByIdForUpdate(String consumer);
+
+    // только вставка: save для сущности с заданным id сделал бы merge и мог бы сбросить чужую позицию в 0
+    @Modifying
+    @Query("insert into OutboxOffset (consumer, lastEventId) values (?1, 0)")
+    void insert(String consumer);
+}
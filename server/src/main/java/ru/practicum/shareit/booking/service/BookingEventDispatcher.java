@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.OutboxOffset;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.OutboxOffsetRepository;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// доставляет события из outbox получателям пачками, у каждого получателя своя позиция
+@Slf4j
+@Component
+public class BookingEventDispatcher {
+
+    private final BookingEventRepository eventRepository;
+    private final OutboxOffsetRepository offsetRepository;
+    private final List<BookingEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final DateMapper dateMapper;
+    private final int batchSize;
+    private final Duration gapTimeout;
+
+    public BookingEventDispatcher(
+            BookingEventRepository eventRepository,
+            OutboxOffsetRepository offsetRepository,
+            List<BookingEventListener> listeners,
+            TransactionTemplate transactionTemplate,
+            DateMapper dateMapper,
+            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+            @Value("${shareit.outbox.gap-timeout:10s}") Duration gapTimeout
+    ) {
+        this.eventRepository = eventRepository;
+        this.offsetRepository = offsetRepository;
+        this.listeners = listeners;
+        this.transactionTemplate = transactionTemplate;
+        this.newTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dateMapper = dateMapper;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.dispatch-interval:PT1S}")
+    public void dispatchAll() {
+        for (BookingEventListener listener : listeners) {
+            try {
+                while (dispatch(listener) == batchSize) {
+                    log.debug("Next batch of booking events for {}", listener.getName());
+                }
+            } catch (RuntimeException e) {
+                // позиция не сдвинулась, пачка будет доставлена повторно на следующем запуске
+                log.error("Booking events delivery to {} failed", listener.getName(), e);
+            }
+        }
+    }
+
+    // одна пачка событий одному получателю. Возвращает число доставленных событий
+    public int dispatch(BookingEventListener listener) {
+        Integer delivered = transactionTemplate.execute(status -> {
+            OutboxOffset offset = getOffsetForUpdate(listener.getName());
+            List<BookingEvent> events = eventRepository.findByIdGreaterThanOrderById(
+                    offset.getLastEventId(), PageRequest.of(0, batchSize));
+            events = untilGap(offset.getLastEventId(), events);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            listener.onEvents(events);
+            offset.setLastEventId(events.get(events.size() - 1).getId());
+            offsetRepository.save(offset);
+            return events.size();
+        });
+        return delivered != null ? delivered : 0;
+    }
+
+    // повторная доставка получателю всех событий начиная с fromEventId
+    public void replay(String consumer, long fromEventId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            OutboxOffset offset = getOffsetForUpdate(consumer);
+            offset.setLastEventId(Math.max(fromEventId - 1, 0));
+            offsetRepository.save(offset);
+        });
+        log.info("Booking events for {} will be replayed from id={}", consumer, fromEventId);
+    }
+
+    private OutboxOffset getOffsetForUpdate(String consumer) {
+        return offsetRepository.findByIdForUpdate(consumer).orElseGet(() -> {
+            createOffset(consumer);
+            return offsetRepository.findByIdForUpdate(consumer).orElseThrow();
+        });
+    }
+
+    // позицию нового получателя могут одновременно создавать несколько экземпляров сервера.
+    // Вставка идет в отдельной транзакции: проигравший получает нарушение ключа и читает строку победителя
+    private void createOffset(String consumer) {
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> offsetRepository.insert(consumer));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox offset for {} is created by another instance", consumer);
+        }
+    }
+
+    // id выдаются до коммита, поэтому пропуск в id может быть еще не закоммиченным событием.
+    // Такой пропуск ждем gapTimeout, потом считаем его откатом и идем дальше
+    private List<BookingEvent> untilGap(long lastEventId, List<BookingEvent> events) {
+        Instant gapDeadline = dateMapper.now().minus(gapTimeout);
+        List<BookingEvent> result = new ArrayList<>(events.size());
+        long expectedId = lastEventId + 1;
+        for (BookingEvent event : events) {
+            if (event.getId() != expectedId && event.getCreated().isAfter(gapDeadline)) {
+                break;
+            }
+            result.add(event);
+            expectedId = event.getId() + 1;
+        }
+        return result;
+    }
+}
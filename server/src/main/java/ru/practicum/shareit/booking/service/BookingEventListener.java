@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.util.List;
+
+// получатель событий по броням. Доставка "хотя бы один раз": при исключении пачка придет повторно
+public interface BookingEventListener {
+
+    // имя получателя, по нему хранится позиция чтения
+    String getName();
+
+    // вызывается в транзакции, в которой сдвигается позиция получателя
+    void onEvents(List<BookingEvent> events);
+}
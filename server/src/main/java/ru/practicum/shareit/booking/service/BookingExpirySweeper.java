@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Duration;
+
+// переводит в EXPIRED брони, которые владелец не рассмотрел до начала или за время ttl.
+// Пачки разбираются в отдельных транзакциях, заблокированные брони пропускаются, поэтому
+// несколько экземпляров сервера разбирают просроченные брони параллельно, не мешая друг другу
+@Slf4j
+@Component
+public class BookingExpirySweeper {
+
+    private final BookingService bookingService;
+    private final DateMapper dateMapper;
+    private final Duration ttl;
+    private final int batchSize;
+    private final Counter expired;
+    private final Counter batches;
+    private final Timer sweeps;
+
+    public BookingExpirySweeper(
+            BookingService bookingService,
+            DateMapper dateMapper,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.booking-expiry.ttl:P7D}") Duration ttl,
+            @Value("${shareit.booking-expiry.batch-size:100}") int batchSize
+    ) {
+        this.bookingService = bookingService;
+        this.dateMapper = dateMapper;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        // пропускная способность - скорость роста счетчика броней, время прохода - по таймеру
+        this.expired = Counter.builder("shareit.booking.expiry.bookings")
+                .description("WAITING bookings moved to EXPIRED")
+                .register(meterRegistry);
+        this.batches = Counter.builder("shareit.booking.expiry.batches")
+                .description("Batches of expired bookings committed")
+                .register(meterRegistry);
+        this.sweeps = Timer.builder("shareit.booking.expiry.sweep")
+                .description("Time of one pass over expired bookings")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.sweep-interval:PT1M}")
+    public void sweepAll() {
+        sweeps.record(() -> {
+            long total = 0;
+            try {
+                int count;
+                do {
+                    count = sweep();
+                    total += count;
+                } while (count == batchSize);
+            } catch (RuntimeException e) {
+                // пачка откатилась, ее брони будут разобраны на следующем запуске
+                log.error("Expiring waiting bookings failed", e);
+            }
+            if (total > 0) {
+                log.info("Waiting bookings are expired: {}", total);
+            }
+        });
+    }
+
+    // одна пачка просроченных броней. Возвращает число переведенных в EXPIRED
+    public int sweep() {
+        int count = bookingService.expireWaiting(dateMapper.now().minus(ttl), batchSize);
+        if (count > 0) {
+            expired.increment(count);
+            batches.increment();
+        }
+        return count;
+    }
+}
@@ -1,69 +1,144 @@
 package ru.practicum.shareit.booking.service;
 
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Expressions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.querydsl.QSort;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingImportRequest;
+import ru.practicum.shareit.booking.dto.BookingsPage;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.QBooking;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.Monitored;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.utils.DateMapper;
+import ru.practicum.shareit.utils.NdjsonExporter;
 
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.StreamSupport;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+import static ru.practicum.shareit.constant.ValidationConstant.PAGE_MAX_SIZE;
 
 @Slf4j
 @Service
+@Monitored
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingService {
 
+    private static final OrderSpecifier<?>[] PAGE_ORDER = {
+            QBooking.booking.createDate.desc(),
+            QBooking.booking.id.desc()
+    };
+
     private final ItemService itemService;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
+    private final DateMapper dateMapper;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingEventRepository bookingEventRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
 
     @Transactional
     public BookingDto create(Long bookerId, NewBookingRequest request) {
         User user = getUserById(bookerId);
-        // проверка повторного бронирования
-        if (bookingRepository.findByBookerIdAndItemId(bookerId, request.getItemId()).isPresent()) {
+        // проверка повторного бронирования. Просроченная бронь открывается заново: пара (booker_id, item_id) уникальна
+        Booking expired = bookingRepository.findByBookerIdAndItemId(bookerId, request.getItemId()).orElse(null);
+        if (expired != null && expired.getStatus() != BookingStatus.EXPIRED) {
             String errorMessage = String.format("Booking for user id=%d is exist", bookerId);
             log.error(errorMessage);
             throw new NotFoundException(errorMessage);
         }
-        Item item = getItemById(request.getItemId());
+        Item item = getItemByIdForUpdate(request.getItemId());
         // проверка доступности вещи
         if (!item.getAvailable()) {
             String errorMessage = String.format("Item with id=%d is not available", item.getId());
             log.error(errorMessage);
             throw new ValidationException(errorMessage);
         }
-        Booking booking = bookingMapper.update(new Booking(), user, item, request);
+        Booking booking = bookingMapper.update(expired != null ? expired : new Booking(), user, item, request);
+        if (expired != null) {
+            booking.setStatus(BookingStatus.WAITING);
+            booking.setCreateDate(dateMapper.now());
+        }
+        // проверка пересечения с подтвержденными бронированиями этой вещи
+        checkNoApprovedOverlap(booking);
         bookingRepository.save(booking);
+        itemBookingSummaryService.onCreated(booking);
+        recordEvent(BookingEventType.BOOKING_CREATED, booking);
         return bookingMapper.toDto(booking);
     }
 
+    // перенос броней из другой системы: проверки пересечений и событий нет, сводки вещей пересчитываются один раз на пачку
+    @Transactional
+    public List<BookingDto> importBookings(List<BookingImportRequest> requests) {
+        Set<List<Long>> bookerAndItemIds = new HashSet<>();
+        for (BookingImportRequest request : requests) {
+            if (!request.getStart().isBefore(request.getEnd())) {
+                String errorMessage = String.format("Booking of item id=%d by user id=%d must start before end",
+                        request.getItemId(), request.getBookerId());
+                log.error(errorMessage);
+                throw new ValidationException(errorMessage);
+            }
+            if (!bookerAndItemIds.add(List.of(request.getBookerId(), request.getItemId()))) {
+                String errorMessage = String.format("Booking of item id=%d by user id=%d is repeated",
+                        request.getItemId(), request.getBookerId());
+                log.error(errorMessage);
+                throw new ValidationException(errorMessage);
+            }
+        }
+        Map<Long, User> bookers = userService.getUsersByIds(requests.stream()
+                .map(BookingImportRequest::getBookerId)
+                .collect(toSet()));
+        Map<Long, Item> items = itemService.getItemsByIdsForUpdate(requests.stream()
+                .map(BookingImportRequest::getItemId)
+                .collect(toSet()));
+        checkNoExistingBookings(bookerAndItemIds, bookers.keySet(), items.keySet());
+
+        List<Booking> bookings = bookingRepository.saveAll(requests.stream()
+                .map(request -> bookingMapper.toBooking(
+                        request,
+                        bookers.get(request.getBookerId()),
+                        items.get(request.getItemId())
+                ))
+                .toList());
+        itemBookingSummaryService.onImported(bookings);
+        itemAvailabilityCalendar.onImported(bookings);
+        log.info("Importing bookings is successful: {} bookings", bookings.size());
+        return bookings.stream()
+                .map(bookingMapper::toDto)
+                .toList();
+    }
+
     @Transactional
     public BookingDto approve(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = getBooking(bookingId);
+        Booking booking = getBookingForUpdate(bookingId);
         // проверяем статус текущей брони. Только для WAITING можно выполнить операцию
         if (!booking.getStatus().equals(BookingStatus.WAITING)) {
             String errorMessage = String.format("Booking with id=%d is %s", userId, booking.getStatus());
@@ -81,12 +156,46 @@ public class BookingService {
         // проверяем владельца. только владелец может подтвердить бронь
         checkOwner(user.getId(), booking.getItem());
         BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // сводка вещи меняется при любом исходе, поэтому вещь блокируется и при отклонении
+        getItemByIdForUpdate(booking.getItem().getId());
+        if (status == BookingStatus.APPROVED) {
+            checkNoApprovedOverlap(booking);
+        }
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(status);
-        booking.getItem().setAvailable(false);
         bookingRepository.save(booking);
+        itemBookingSummaryService.onStatusChanged(booking, previousStatus);
+        if (status == BookingStatus.APPROVED) {
+            itemAvailabilityCalendar.onApproved(booking);
+        }
+        recordEvent(status == BookingStatus.APPROVED
+                ? BookingEventType.BOOKING_APPROVED
+                : BookingEventType.BOOKING_REJECTED, booking);
         return bookingMapper.toDto(booking);
     }
 
+    // переводит в EXPIRED пачку просроченных WAITING броней, см. BookingRepository.findExpiredForUpdate.
+    // Возвращает размер пачки: меньше limit - просроченных броней больше нет
+    @Transactional
+    public int expireWaiting(Instant createdBefore, int limit) {
+        List<Booking> bookings = bookingRepository.findExpiredForUpdate(dateMapper.now(), createdBefore,
+                PageRequest.of(0, limit));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        // сводки вещей меняются под блокировкой вещей, как при создании и подтверждении брони
+        itemService.getItemsByIdsForUpdate(bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(toSet()));
+        for (Booking booking : bookings) {
+            booking.setStatus(BookingStatus.EXPIRED);
+            itemBookingSummaryService.onStatusChanged(booking, BookingStatus.WAITING);
+            recordEvent(BookingEventType.BOOKING_EXPIRED, booking);
+        }
+        bookingRepository.saveAll(bookings);
+        return bookings.size();
+    }
+
     public BookingDto getById(Long bookingId, Long userId) {
         Booking booking = getBooking(bookingId);
         User user = getUserById(userId);
@@ -95,52 +204,112 @@ public class BookingService {
         return bookingMapper.toDto(booking);
     }
 
-    public List<BookingDto> getBookingsByBooker(Long bookerId, BookingState state) {
+    public BookingsPage getBookingsByBooker(Long bookerId, BookingState state, int from, int size, String cursor) {
         User booker = getUserById(bookerId);
         BooleanExpression byBookerId = QBooking.booking.booker.id.eq(booker.getId());
-        return getBookingsByUserPredicate(byBookerId, state);
+        return getBookingsPage(state, from, size, cursor, (predicate, offset, limit) ->
+                bookingRepository.findPage(byBookerId.and(predicate), offset, limit, PAGE_ORDER));
     }
 
-    public List<BookingDto> getBookingsByOwner(Long userId, BookingState state) {
+    // брони вещей владельца: отдельный запрос с соединением по items.user_id
+    public BookingsPage getBookingsByOwner(Long userId, BookingState state, int from, int size, String cursor) {
         User owner = getUserById(userId);
-        BooleanExpression byUserId = QBooking.booking.item.id.eq(owner.getId());
-        return getBookingsByUserPredicate(byUserId, state);
+        return getBookingsPage(state, from, size, cursor, (predicate, offset, limit) ->
+                bookingRepository.findOwnerPage(owner.getId(), predicate, offset, limit, PAGE_ORDER));
+    }
+
+    // владелец проверяется сразу: после первой выгруженной строки статус ответа уже не изменить
+    public StreamingResponseBody exportByOwner(Long userId) {
+        User owner = getUserById(userId);
+        return ndjsonExporter.export(() -> bookingRepository.streamByOwner(owner.getId()), bookingMapper::toDto);
+    }
+
+    public StreamingResponseBody exportAll() {
+        return ndjsonExporter.export(bookingRepository::streamAll, bookingMapper::toDto);
     }
 
-    private List<BookingDto> getBookingsByUserPredicate(BooleanExpression userPredicate, BookingState state) {
-        Sort sort = new QSort(QBooking.booking.createDate.desc());
+    private BookingsPage getBookingsPage(BookingState state, int from, int size, String cursor, PageQuery pageQuery) {
+        checkPageParameters(from, size);
+        long offset = from;
+        BooleanExpression predicate = getStatePredicate(state);
+        // при наличии курсора продолжаем с позиции (createDate, id), смещение from не используется
+        if (cursor != null && !cursor.isBlank()) {
+            BooleanExpression byCursor = afterCursor(BookingCursor.decode(cursor));
+            predicate = predicate == null ? byCursor : predicate.and(byCursor);
+            offset = 0;
+        }
+
+        List<Booking> bookings = pageQuery.find(predicate, offset, size + 1);
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            nextCursor = BookingCursor.of(bookings.get(size - 1)).encode();
+        }
+        List<BookingDto> bookingDtos = bookings.stream()
+                .map(bookingMapper::toDto)
+                .toList();
+        return new BookingsPage(bookingDtos, nextCursor);
+    }
 
-        Predicate predicate = switch (state) {
-            case ALL -> userPredicate;
+    // null для ALL: фильтра по состоянию нет
+    private BooleanExpression getStatePredicate(BookingState state) {
+        return switch (state) {
+            case ALL -> null;
             case CURRENT -> {
-                Instant now = DateMapper.now();
-                BooleanExpression between = Expressions.asDate(now).between(QBooking.booking.start, QBooking.booking.end);
-                yield userPredicate.and(between);
-            }
-            case PAST -> {
-                Instant now = DateMapper.now();
-                BooleanExpression byEnd = QBooking.booking.end.before(now);
-                yield userPredicate.and(byEnd);
-            }
-            case FUTURE -> {
-                Instant now = DateMapper.now();
-                BooleanExpression byStart = QBooking.booking.start.after(now);
-                yield userPredicate.and(byStart);
-            }
-            case WAITING -> {
-                BooleanExpression byStatus = QBooking.booking.status.eq(BookingStatus.WAITING);
-                yield userPredicate.and(byStatus);
-            }
-            case REJECTED -> {
-                BooleanExpression byStatus = QBooking.booking.status.eq(BookingStatus.REJECTED);
-                yield userPredicate.and(byStatus);
+                Instant now = dateMapper.now();
+                yield Expressions.asDate(now).between(QBooking.booking.start, QBooking.booking.end);
             }
+            case PAST -> QBooking.booking.end.before(dateMapper.now());
+            case FUTURE -> QBooking.booking.start.after(dateMapper.now());
+            case WAITING -> QBooking.booking.status.eq(BookingStatus.WAITING);
+            case REJECTED -> QBooking.booking.status.eq(BookingStatus.REJECTED);
         };
+    }
 
-        Iterable<Booking> bookings = bookingRepository.findAll(predicate, sort);
-        return StreamSupport.stream(bookings.spliterator(), false)
-                .map(bookingMapper::toDto)
-                .toList();
+    private BooleanExpression afterCursor(BookingCursor cursor) {
+        QBooking booking = QBooking.booking;
+        return booking.createDate.lt(cursor.getCreateDate())
+                .or(booking.createDate.eq(cursor.getCreateDate()).and(booking.id.lt(cursor.getId())));
+    }
+
+    private void checkPageParameters(int from, int size) {
+        if (from < 0 || size <= 0 || size > PAGE_MAX_SIZE) {
+            String errorMessage = String.format("Wrong page parameters: from=%d, size=%d", from, size);
+            log.error(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+    }
+
+    // интервалы [start, end) пересекаются, если каждый начинается раньше, чем заканчивается другой
+    private void checkNoApprovedOverlap(Booking booking) {
+        QBooking qBooking = QBooking.booking;
+        BooleanExpression predicate = qBooking.item.id.eq(booking.getItem().getId())
+                .and(qBooking.status.eq(BookingStatus.APPROVED))
+                .and(qBooking.start.lt(booking.getEnd()))
+                .and(qBooking.end.gt(booking.getStart()));
+        if (booking.getId() != null) {
+            predicate = predicate.and(qBooking.id.ne(booking.getId()));
+        }
+        if (bookingRepository.exists(predicate)) {
+            String errorMessage = String.format("Item with id=%d is already booked from %s to %s",
+                    booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            log.error(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+    }
+
+    // у пользователя может быть только одна бронь вещи. Существующие пары ищутся одним запросом
+    private void checkNoExistingBookings(Set<List<Long>> bookerAndItemIds, Set<Long> bookerIds, Set<Long> itemIds) {
+        BooleanExpression predicate = QBooking.booking.booker.id.in(bookerIds)
+                .and(QBooking.booking.item.id.in(itemIds));
+        for (Booking booking : bookingRepository.findAll(predicate)) {
+            if (bookerAndItemIds.contains(List.of(booking.getBooker().getId(), booking.getItem().getId()))) {
+                String errorMessage = String.format("Booking of item id=%d by user id=%d is exist",
+                        booking.getItem().getId(), booking.getBooker().getId());
+                log.error(errorMessage);
+                throw new ValidationException(errorMessage);
+            }
+        }
     }
 
     private void checkOwner(Long userId, Item item) {
@@ -162,6 +331,21 @@ public class BookingService {
         throw new NotFoundException(errorMessage);
     }
 
+    // событие сохраняется в транзакции изменения брони, получателям его доставит BookingEventDispatcher
+    private void recordEvent(BookingEventType type, Booking booking) {
+        BookingEvent event = new BookingEvent();
+        event.setType(type);
+        event.setBookingId(booking.getId());
+        event.setItemId(booking.getItem().getId());
+        event.setBookerId(booking.getBooker().getId());
+        event.setOwnerId(booking.getItem().getUser().getId());
+        event.setStatus(booking.getStatus());
+        event.setStart(booking.getStart());
+        event.setEnd(booking.getEnd());
+        event.setCreated(dateMapper.now());
+        bookingEventRepository.save(event);
+    }
+
     private User getUserById(Long userId) {
         return userService.getUserById(userId);
     }
@@ -174,7 +358,20 @@ public class BookingService {
         });
     }
 
-    private Item getItemById(Long itemId) {
-        return itemService.getItemById(itemId);
+    private Booking getBookingForUpdate(Long bookingId) {
+        return bookingRepository.findByIdForUpdate(bookingId).orElseThrow(() -> {
+            String errorMessage = String.format("Бронирование с id=%d не найдено", bookingId);
+            log.error(errorMessage);
+            return new NotFoundException(errorMessage);
+        });
+    }
+
+    private Item getItemByIdForUpdate(Long itemId) {
+        return itemService.getItemByIdForUpdate(itemId);
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<Booking> find(Predicate predicate, long offset, int limit);
     }
 }
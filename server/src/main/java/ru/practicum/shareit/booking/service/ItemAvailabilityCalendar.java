@@ -0,0 +1,288 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingSlotView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.FreeInterval;
+import ru.practicum.shareit.booking.model.OutboxOffset;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OutboxOffsetRepository;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// занятость вещей по часовым слотам на скользящем горизонте, в памяти. Слот занят, если его хотя бы частично
+// покрывает подтвержденная бронь: WAITING время не блокирует, как и при проверке пересечений в BookingService.
+// Календарь собирается из базы до старта веб-сервера, дальше обновляется после коммита подтверждения
+// и импорта броней, поэтому запросы свободного времени в базу не ходят.
+// Подтверждения на других экземплярах сервера приходят через outbox (BOOKING_APPROVED): у календаря каждого
+// экземпляра своя позиция, она создается при сборке и удаляется при остановке. Импорт событий не пишет,
+// импортированные на другом экземпляре брони появятся в календаре после перезапуска.
+// Хранятся только вещи с будущими подтвержденными бронями, прошедшие слоты отбрасываются
+@Slf4j
+@Component
+public class ItemAvailabilityCalendar implements SmartInitializingSingleton, DisposableBean, BookingEventListener {
+
+    public static final Duration SLOT = Duration.ofHours(1);
+    private static final long SLOT_MILLIS = SLOT.toMillis();
+
+    private final BookingRepository bookingRepository;
+    private final BookingEventRepository eventRepository;
+    private final OutboxOffsetRepository offsetRepository;
+    private final DateMapper dateMapper;
+    private final Duration horizon;
+    private final Duration gapTimeout;
+    private final String consumer = "item-availability-calendar:" + UUID.randomUUID();
+    private final Map<Long, ItemSlots> slotsByItem = new ConcurrentHashMap<>();
+
+    public ItemAvailabilityCalendar(
+            BookingRepository bookingRepository,
+            BookingEventRepository eventRepository,
+            OutboxOffsetRepository offsetRepository,
+            DateMapper dateMapper,
+            @Value("${shareit.availability.horizon:P365D}") Duration horizon,
+            @Value("${shareit.outbox.gap-timeout:10s}") Duration gapTimeout
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.eventRepository = eventRepository;
+        this.offsetRepository = offsetRepository;
+        this.dateMapper = dateMapper;
+        this.horizon = horizon;
+        this.gapTimeout = gapTimeout;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Instant now = dateMapper.now();
+        // позиция ставится до чтения броней и с запасом gapTimeout: событие, чья транзакция еще не закоммичена,
+        // придет через outbox. Повторная отметка уже занятых слотов ничего не меняет
+        long lastEventId = eventRepository.findFirstByCreatedBeforeOrderByIdDesc(now.minus(gapTimeout))
+                .map(BookingEvent::getId)
+                .orElse(0L);
+        offsetRepository.save(new OutboxOffset(consumer, lastEventId));
+        List<BookingSlotView> bookings = bookingRepository.findApprovedSlots(now, getHorizonEnd(now));
+        for (BookingSlotView booking : bookings) {
+            markBusy(booking.getItemId(), booking.getStart(), booking.getEnd(), now);
+        }
+        log.info("Availability calendar is built: {} bookings of {} items", bookings.size(), slotsByItem.size());
+    }
+
+    // позиция нужна только работающему экземпляру. После аварийной остановки строка остается, но не читается
+    @Override
+    public void destroy() {
+        try {
+            offsetRepository.deleteById(consumer);
+        } catch (RuntimeException e) {
+            log.warn("Outbox offset {} is not removed: {}", consumer, e.getMessage());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return consumer;
+    }
+
+    @Override
+    public void onEvents(List<BookingEvent> events) {
+        Instant now = dateMapper.now();
+        for (BookingEvent event : events) {
+            if (event.getType() == BookingEventType.BOOKING_APPROVED) {
+                markBusy(event.getItemId(), event.getStart(), event.getEnd(), now);
+            }
+        }
+    }
+
+    public Instant getHorizonEnd(Instant now) {
+        return now.plus(horizon);
+    }
+
+    public void onApproved(Booking booking) {
+        afterCommit(() -> markBusy(booking.getItem().getId(), booking.getStart(), booking.getEnd(), dateMapper.now()));
+    }
+
+    public void onImported(Collection<Booking> bookings) {
+        List<Booking> approved = bookings.stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .toList();
+        if (approved.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Instant now = dateMapper.now();
+            approved.forEach(booking -> markBusy(booking.getItem().getId(), booking.getStart(), booking.getEnd(), now));
+        });
+    }
+
+    public void onItemRemoved(Long itemId) {
+        afterCommit(() -> slotsByItem.remove(itemId));
+    }
+
+    // свободна ли вещь на всем интервале [from, to); прошедшее время свободным не считается
+    public boolean isFree(Long itemId, Instant from, Instant to) {
+        Instant now = dateMapper.now();
+        if (from.isBefore(slotStart(slotOf(now)))) {
+            return false;
+        }
+        ItemSlots slots = slotsByItem.get(itemId);
+        return slots == null || slots.isFree(slotOf(from), slotOfEnd(to));
+    }
+
+    // начало ближайшего свободного слота не раньше from и текущего момента; null - до конца горизонта всё занято
+    public Instant findNextFreeSlot(Long itemId, Instant from) {
+        Instant now = dateMapper.now();
+        Instant start = from.isAfter(now) ? from : now;
+        ItemSlots slots = slotsByItem.get(itemId);
+        long freeSlot = slots == null ? slotOf(start) : slots.nextFreeSlot(slotOf(start));
+        if (freeSlot >= slotOfEnd(getHorizonEnd(now))) {
+            return null;
+        }
+        Instant slotStart = slotStart(freeSlot);
+        return slotStart.isAfter(start) ? slotStart : start;
+    }
+
+    // свободные интервалы внутри [from, to) по границам слотов, обрезанные по from, to и текущему моменту
+    public List<FreeInterval> findFreeIntervals(Long itemId, Instant from, Instant to) {
+        Instant now = dateMapper.now();
+        Instant start = from.isAfter(now) ? from : now;
+        if (!start.isBefore(to)) {
+            return List.of();
+        }
+        ItemSlots slots = slotsByItem.get(itemId);
+        if (slots == null) {
+            return List.of(new FreeInterval(start, to));
+        }
+        List<FreeInterval> intervals = new ArrayList<>();
+        for (long[] range : slots.freeRanges(slotOf(start), slotOfEnd(to))) {
+            Instant intervalStart = slotStart(range[0]);
+            Instant intervalEnd = slotStart(range[1]);
+            intervals.add(new FreeInterval(
+                    intervalStart.isAfter(start) ? intervalStart : start,
+                    intervalEnd.isBefore(to) ? intervalEnd : to
+            ));
+        }
+        return intervals;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.availability.cleanup-interval:PT1H}")
+    public void dropPastSlots() {
+        long currentSlot = slotOf(dateMapper.now());
+        for (Long itemId : slotsByItem.keySet()) {
+            slotsByItem.computeIfPresent(itemId, (id, slots) -> slots.dropBefore(currentSlot) ? null : slots);
+        }
+    }
+
+    private void markBusy(Long itemId, Instant start, Instant end, Instant now) {
+        long currentSlot = slotOf(now);
+        long fromSlot = Math.max(slotOf(start), currentSlot);
+        long toSlot = Math.min(slotOfEnd(end), slotOfEnd(getHorizonEnd(now)));
+        if (fromSlot >= toSlot) {
+            return;
+        }
+        slotsByItem.compute(itemId, (id, slots) -> {
+            ItemSlots result = slots != null ? slots : new ItemSlots(currentSlot);
+            result.dropBefore(currentSlot);
+            result.markBusy(fromSlot, toSlot);
+            return result;
+        });
+    }
+
+    // календарь не должен показывать бронь, транзакция которой откатилась
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long slotOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), SLOT_MILLIS);
+    }
+
+    // первый слот после интервала, заканчивающегося в end: частично занятый слот входит в интервал
+    private static long slotOfEnd(Instant end) {
+        return Math.floorDiv(end.toEpochMilli() + SLOT_MILLIS - 1, SLOT_MILLIS);
+    }
+
+    private static Instant slotStart(long slot) {
+        return Instant.ofEpochMilli(slot * SLOT_MILLIS);
+    }
+
+    // бит i - слот firstSlot + i
+    private static class ItemSlots {
+        private long firstSlot;
+        private BitSet busy = new BitSet();
+
+        ItemSlots(long firstSlot) {
+            this.firstSlot = firstSlot;
+        }
+
+        synchronized void markBusy(long fromSlot, long toSlot) {
+            busy.set(offset(fromSlot), offset(toSlot));
+        }
+
+        synchronized boolean isFree(long fromSlot, long toSlot) {
+            int from = offset(fromSlot);
+            int next = busy.nextSetBit(from);
+            return next < 0 || next >= offset(toSlot);
+        }
+
+        synchronized long nextFreeSlot(long fromSlot) {
+            return firstSlot + busy.nextClearBit(offset(fromSlot));
+        }
+
+        synchronized List<long[]> freeRanges(long fromSlot, long toSlot) {
+            List<long[]> ranges = new ArrayList<>();
+            int to = offset(toSlot);
+            int free = busy.nextClearBit(offset(fromSlot));
+            while (free < to) {
+                int next = busy.nextSetBit(free);
+                int end = next < 0 || next > to ? to : next;
+                ranges.add(new long[]{firstSlot + free, firstSlot + end});
+                if (end == to) {
+                    break;
+                }
+                free = busy.nextClearBit(end);
+            }
+            return ranges;
+        }
+
+        // true, если занятых слотов не осталось
+        synchronized boolean dropBefore(long slot) {
+            if (slot > firstSlot) {
+                busy = busy.get(offset(slot), Math.max(busy.length(), offset(slot)));
+                firstSlot = slot;
+            }
+            return busy.isEmpty();
+        }
+
+        // слоты до firstSlot уже прошли, запросы по ним приводятся к началу календаря
+        private int offset(long slot) {
+            return (int) Math.max(slot - firstSlot, 0);
+        }
+    }
+}
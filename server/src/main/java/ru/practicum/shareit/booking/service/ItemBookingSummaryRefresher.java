@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// сохраняет даты сводок бронирований, устаревших по времени. Чтение досчитывает их само и ничего не пишет,
+// поэтому GET /items остается readOnly. Несколько экземпляров сервера могут взять одни и те же сводки:
+// даты сохраняются условным update по версии, и второй экземпляр ничего не меняет
+@Slf4j
+@Component
+public class ItemBookingSummaryRefresher {
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final int batchSize;
+    private final Counter refreshed;
+
+    public ItemBookingSummaryRefresher(
+            ItemBookingSummaryService itemBookingSummaryService,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.booking-summary.batch-size:100}") int batchSize
+    ) {
+        this.itemBookingSummaryService = itemBookingSummaryService;
+        this.batchSize = batchSize;
+        this.refreshed = Counter.builder("shareit.booking.summary.refreshed")
+                .description("Item booking summaries with rolled forward dates")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-interval:PT1M}")
+    public void refreshAll() {
+        try {
+            int count;
+            do {
+                count = itemBookingSummaryService.refreshStale(batchSize);
+                refreshed.increment(count);
+            } while (count == batchSize);
+        } catch (RuntimeException e) {
+            // пачка откатилась, ее сводки досчитываются при чтении и будут сохранены на следующем запуске
+            log.error("Refreshing item booking summaries failed", e);
+        }
+    }
+}
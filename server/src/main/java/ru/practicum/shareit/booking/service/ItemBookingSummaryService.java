@@ -0,0 +1,213 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingDatesView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final DateMapper dateMapper;
+
+    // вызывается под блокировкой вещи, поэтому изменения сводки одной вещи не пересекаются. Строка сводки
+    // читается с блокировкой: сохранение дат в refreshStale ждет коммита и видит новую версию
+    @Transactional
+    public void onCreated(Booking booking) {
+        Instant now = dateMapper.now();
+        ItemBookingSummary summary = getSummaryForUpdate(booking.getItem().getId(), now);
+        changeCount(summary, booking.getStatus(), 1);
+        applyDates(summary, booking, now);
+        summaryRepository.save(summary);
+    }
+
+    @Transactional
+    public void onStatusChanged(Booking booking, BookingStatus previousStatus) {
+        if (booking.getStatus() == previousStatus) {
+            return;
+        }
+        Instant now = dateMapper.now();
+        ItemBookingSummary summary = getSummaryForUpdate(booking.getItem().getId(), now);
+        changeCount(summary, previousStatus, -1);
+        changeCount(summary, booking.getStatus(), 1);
+        summaryRepository.save(summary);
+    }
+
+    // перенесенные брони: счетчики меняются сразу, даты досчитываются при чтении, пока их не сохранит refreshStale
+    @Transactional
+    public void onImported(Collection<Booking> bookings) {
+        Map<Long, List<Booking>> bookingsByItems = bookings.stream()
+                .collect(groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findByItemIdInForUpdate(bookingsByItems.keySet())
+                .stream()
+                .collect(toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<ItemBookingSummary> changed = new ArrayList<>(bookingsByItems.size());
+        bookingsByItems.forEach((itemId, itemBookings) -> {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null) {
+                summary = new ItemBookingSummary();
+                summary.setItemId(itemId);
+            }
+            for (Booking booking : itemBookings) {
+                changeCount(summary, booking.getStatus(), 1);
+            }
+            summary.setRefreshAt(Instant.EPOCH);
+            changed.add(summary);
+        });
+        summaryRepository.saveAll(changed);
+    }
+
+    // сводки по вещам, вещи без броней в ответ не попадают. Даты устаревших по времени сводок досчитываются
+    // одним запросом только для ответа: чтение ничего не пишет, сохраняет их refreshStale по расписанию
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        Instant now = dateMapper.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findByItemIdIn(itemIds)
+                .stream()
+                .collect(toMap(ItemBookingSummary::getItemId, Function.identity(), (a, b) -> a, HashMap::new));
+        List<ItemBookingSummary> stale = summaries.values().stream()
+                .filter(summary -> isStale(summary, now))
+                .toList();
+        rollForward(stale, now).forEach(summary -> summaries.put(summary.getItemId(), summary));
+        return summaries;
+    }
+
+    // сохраняет даты пачки устаревших сводок. Возвращает число прочитанных сводок
+    @Transactional
+    public int refreshStale(int batchSize) {
+        Instant now = dateMapper.now();
+        List<ItemBookingSummary> stale = summaryRepository.findStale(now, PageRequest.of(0, batchSize));
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        log.debug("Roll forward {} booking summaries", stale.size());
+        Map<Long, Long> versions = stale.stream()
+                .collect(toMap(ItemBookingSummary::getItemId, ItemBookingSummary::getVersion));
+        // сохраняем условным update по версии, чтобы не затереть параллельное изменение брони.
+        // Если сводка уже изменилась, даты досчитало само изменение
+        for (ItemBookingSummary actual : rollForward(stale, now)) {
+            summaryRepository.updateDates(actual.getItemId(), actual.getLastBooking(), actual.getNextBooking(),
+                    actual.getRefreshAt(), versions.get(actual.getItemId()));
+        }
+        return stale.size();
+    }
+
+    // копии сводок с датами на момент now: прочитанные управляемые сущности не меняются
+    private List<ItemBookingSummary> rollForward(List<ItemBookingSummary> stale, Instant now) {
+        if (stale.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemBookingDatesView> datesByItems = getBookingDates(stale.stream()
+                .map(ItemBookingSummary::getItemId)
+                .toList(), now);
+        return stale.stream().map(summary -> {
+            ItemBookingSummary actual = copyCounts(summary);
+            setDates(actual, datesByItems.get(summary.getItemId()));
+            return actual;
+        }).toList();
+    }
+
+    private ItemBookingSummary getSummaryForUpdate(Long itemId, Instant now) {
+        ItemBookingSummary summary = summaryRepository.findByIdForUpdate(itemId).orElseGet(() -> {
+            ItemBookingSummary newSummary = new ItemBookingSummary();
+            newSummary.setItemId(itemId);
+            return newSummary;
+        });
+        if (isStale(summary, now)) {
+            setDates(summary, getBookingDates(List.of(itemId), now).get(itemId));
+        }
+        return summary;
+    }
+
+    private Map<Long, ItemBookingDatesView> getBookingDates(Collection<Long> itemIds, Instant now) {
+        return bookingRepository.findBookingDatesByItemIdIn(itemIds, now)
+                .stream()
+                .collect(toMap(ItemBookingDatesView::getItemId, Function.identity()));
+    }
+
+    private boolean isStale(ItemBookingSummary summary, Instant now) {
+        return summary.getRefreshAt() != null && !summary.getRefreshAt().isAfter(now);
+    }
+
+    private void setDates(ItemBookingSummary summary, ItemBookingDatesView dates) {
+        if (dates == null) {
+            summary.setLastBooking(null);
+            summary.setNextBooking(null);
+            summary.setRefreshAt(null);
+            return;
+        }
+        summary.setLastBooking(dates.getLastBooking());
+        summary.setNextBooking(dates.getNextBooking());
+        summary.setRefreshAt(min(dates.getNextBooking(), dates.getNextEnd()));
+    }
+
+    // те же правила, что и в запросе findBookingDatesByItemIdIn, но только для одной новой брони
+    private void applyDates(ItemBookingSummary summary, Booking booking, Instant now) {
+        if (booking.getEnd().isBefore(now)) {
+            summary.setLastBooking(max(summary.getLastBooking(), booking.getEnd()));
+        }
+        if (booking.getStart().isAfter(now)) {
+            summary.setNextBooking(min(summary.getNextBooking(), booking.getStart()));
+            summary.setRefreshAt(min(summary.getRefreshAt(), booking.getStart()));
+        } else if (booking.getEnd().isAfter(now)) {
+            summary.setRefreshAt(min(summary.getRefreshAt(), booking.getEnd()));
+        }
+    }
+
+    private void changeCount(ItemBookingSummary summary, BookingStatus status, int delta) {
+        switch (status) {
+            case WAITING -> summary.setWaitingCount(summary.getWaitingCount() + delta);
+            case APPROVED -> summary.setApprovedCount(summary.getApprovedCount() + delta);
+            case REJECTED -> summary.setRejectedCount(summary.getRejectedCount() + delta);
+            // просроченные брони не считаются: из WAITING бронь просто уходит
+            case EXPIRED -> {
+            }
+        }
+    }
+
+    private ItemBookingSummary copyCounts(ItemBookingSummary summary) {
+        ItemBookingSummary copy = new ItemBookingSummary();
+        copy.setItemId(summary.getItemId());
+        copy.setWaitingCount(summary.getWaitingCount());
+        copy.setApprovedCount(summary.getApprovedCount());
+        copy.setRejectedCount(summary.getRejectedCount());
+        return copy;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
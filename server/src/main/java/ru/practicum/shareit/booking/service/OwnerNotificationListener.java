@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.util.List;
+
+// уведомления владельцам о новых и рассмотренных бронях, пока только в лог
+@Slf4j
+@Component
+public class OwnerNotificationListener implements BookingEventListener {
+
+    @Override
+    public String getName() {
+        return "owner-notifications";
+    }
+
+    @Override
+    public void onEvents(List<BookingEvent> events) {
+        for (BookingEvent event : events) {
+            log.info("Owner id={}: booking id={} of item id={} by user id={} is {}",
+                    event.getOwnerId(), event.getBookingId(), event.getItemId(), event.getBookerId(), event.getType());
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package ru.practicum.shareit.comment.model;
 
-import org.springframework.beans.factory.annotation.Value;
-
 import java.time.Instant;
 
 public interface CommentView {
     Long getId();
 
+    Long getItemId();
+
     String getText();
 
-    @Value("#{target.author.name}")
     String getAuthorName();
 
     Instant getCreated();
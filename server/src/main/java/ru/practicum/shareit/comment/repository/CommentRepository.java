@@ -2,7 +2,9 @@ package ru.practicum.shareit.comment.repository;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
@@ -10,4 +12,11 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemIn(Collection<Item> items, Sort sort);
+
+    @Query("select c.id as id, c.item.id as itemId, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c " +
+            "join c.author a " +
+            "where c.item.id in ?1 " +
+            "order by c.created desc")
+    List<CommentView> findViewsByItemIdIn(Collection<Long> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    // текущее время берется только через этот бин, в тестах его можно подменить фиксированными часами
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
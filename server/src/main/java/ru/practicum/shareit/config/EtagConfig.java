@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.regex.Pattern;
+
+@Configuration
+public class EtagConfig {
+
+    // фильтр буферизует весь ответ, чтобы посчитать хэш. Списки, поиск и выгрузки NDJSON через него не идут:
+    // их ETag никто не перепроверяет, а выгрузка целиком осталась бы в памяти
+    private static final Pattern RESOURCE_BY_ID = Pattern.compile("/(items|users|requests)/\\d+");
+
+    // строгий ETag по содержимому ответа для отдельных вещей, пользователей и запросов.
+    // На If-None-Match с тем же значением отвечаем 304 без тела
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter() {
+                    @Override
+                    protected boolean shouldNotFilter(HttpServletRequest request) {
+                        return !isResourceById(request);
+                    }
+                });
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*");
+        registration.setName("etagFilter");
+        return registration;
+    }
+
+    private static boolean isResourceById(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && RESOURCE_BY_ID.matcher(request.getRequestURI()).matches();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// второй уровень кэша Hibernate для редко меняющихся сущностей: пользователи, вещи, запросы
+@Configuration
+public class HibernateCacheConfig {
+    public static final String USERS_REGION = "shareit.users";
+    public static final String ITEMS_REGION = "shareit.items";
+    public static final String ITEM_REQUESTS_REGION = "shareit.item-requests";
+    public static final String ITEM_REQUEST_ITEMS_REGION = "shareit.item-requests.items";
+    public static final String ITEMS_BY_USER_QUERY_REGION = "shareit.query.items-by-user";
+    public static final String ITEMS_BY_REQUEST_QUERY_REGION = "shareit.query.items-by-request";
+    // регион отметок времени изменения таблиц, по нему Hibernate отбрасывает устаревшие результаты запросов
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    // у каждого контекста свой менеджер: в тестах контексты работают с разными базами
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${shareit.hibernate-cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${shareit.hibernate-cache.entity.ttl:10m}") Duration entityTtl,
+            @Value("${shareit.hibernate-cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${shareit.hibernate-cache.query.ttl:1m}") Duration queryTtl
+    ) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : new String[]{USERS_REGION, ITEMS_REGION, ITEM_REQUESTS_REGION, ITEM_REQUEST_ITEMS_REGION}) {
+            cacheManager.createCache(region, regionConfiguration(entityMaxSize, entityTtl));
+        }
+        for (String region : new String[]{ITEMS_BY_USER_QUERY_REGION, ITEMS_BY_REQUEST_QUERY_REGION, QUERY_RESULTS_REGION}) {
+            cacheManager.createCache(region, regionConfiguration(queryMaxSize, queryTtl));
+        }
+        // отметки времени не вытесняются, иначе кэш запросов может вернуть устаревший результат
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, regionConfiguration(null, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // все регионы создаются выше, опечатка в имени региона должна ломать запуск
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // статистика нужна для метрик попаданий в кэш (hibernate.second.level.cache.requests)
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            // со статистикой Hibernate по умолчанию пишет в INFO сводку "Session Metrics" по каждой сессии
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(Long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.HttpRequest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+@Configuration
+public class LogbookConfig {
+
+    // заменяет условие Logbook по умолчанию (бин с этим именем), запросы пишутся выборочно.
+    // Формат path-sample-rates: /bookings=0.1,/actuator=0
+    @Bean
+    public Predicate<HttpRequest> requestCondition(
+            @Value("${shareit.logbook.sample-rate:1}") double sampleRate,
+            @Value("${shareit.logbook.path-sample-rates:}") String pathSampleRates
+    ) {
+        Map<String, Double> pathRates = new LinkedHashMap<>();
+        for (String pathRate : pathSampleRates.split(",")) {
+            if (pathRate.isBlank()) {
+                continue;
+            }
+            String[] parts = pathRate.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Wrong Logbook sample rate, expected path=rate: " + pathRate);
+            }
+            pathRates.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+        }
+        return new SampledRequestCondition(sampleRate, pathRates);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.config;
+
+import org.zalando.logbook.HttpRequest;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+// выборка запросов для Logbook: доля задается на префикс пути, выигрывает самый длинный подходящий префикс.
+// Доля 0 выключает запись (выгрузки, actuator), 1 - пишет каждый запрос
+public class SampledRequestCondition implements Predicate<HttpRequest> {
+
+    private final double defaultRate;
+    private final List<Map.Entry<String, Double>> pathRates;
+
+    public SampledRequestCondition(double defaultRate, Map<String, Double> pathRates) {
+        this.defaultRate = defaultRate;
+        this.pathRates = pathRates.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Double> entry) -> entry.getKey().length())
+                        .reversed())
+                .toList();
+    }
+
+    @Override
+    public boolean test(HttpRequest request) {
+        double rate = getRate(request.getPath());
+        return rate >= 1 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    double getRate(String path) {
+        for (Map.Entry<String, Double> pathRate : pathRates) {
+            if (path.startsWith(pathRate.getKey())) {
+                return pathRate.getValue();
+            }
+        }
+        return defaultRate;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// фоновые задачи сервера. В тестах выключаются, чтобы не менять данные между шагами теста
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.scheduling.enabled", matchIfMissing = true)
+public class SchedulingConfig {
+}
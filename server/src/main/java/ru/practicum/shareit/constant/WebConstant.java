@@ -2,4 +2,5 @@ package ru.practicum.shareit.constant;
 
 public class WebConstant {
     public static final String HEADER_X_SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String HEADER_X_NEXT_CURSOR = "X-Next-Cursor";
 }
\ No newline at end of file
@@ -1,15 +1,20 @@
 package ru.practicum.shareit.handling;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.method.ParameterValidationResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.DuplicatedDataException;
@@ -20,10 +25,26 @@ import ru.practicum.shareit.exception.ValidationException;
 @Slf4j
 public class ErrorHandler {
 
+    public static final String ERRORS = "shareit.errors";
+
+    private final MeterRegistry meterRegistry;
+    private final LogRateLimiter clientErrorLog;
+
+    // ошибки клиентов пишутся без стека и не чаще заданного числа в секунду: поток неверных запросов
+    // не должен забивать лог. Полное число ошибок - в метрике shareit.errors
+    public ErrorHandler(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.logging.client-errors-per-second:10}") int clientErrorsPerSecond
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.clientErrorLog = new LogRateLimiter(clientErrorsPerSecond);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFound(final NotFoundException e) {
-        log.error("Not found error", e);
+        countError(e, HttpStatus.NOT_FOUND);
+        logClientError("Not found error", e, e.getMessage());
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -32,6 +53,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleDuplicatedData(final DuplicatedDataException e) {
+        countError(e, HttpStatus.CONFLICT);
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -40,7 +62,8 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(final ValidationException e) {
-        log.error("Bad Request", e);
+        countError(e, HttpStatus.BAD_REQUEST);
+        logClientError("Bad Request", e, e.getMessage());
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -49,7 +72,8 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(final MissingRequestHeaderException e) {
-        log.error("Bad Request", e);
+        countError(e, HttpStatus.BAD_REQUEST);
+        logClientError("Bad Request", e, e.getMessage());
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -58,7 +82,8 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleConditionsNotMetException(final ConditionsNotMetException e) {
-        log.error("Bad Request", e);
+        countError(e, HttpStatus.BAD_REQUEST);
+        logClientError("Bad Request", e, e.getMessage());
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -67,7 +92,8 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentTypeMismatchException(final MethodArgumentTypeMismatchException e) {
-        log.error("Argument mismatch error", e);
+        countError(e, HttpStatus.BAD_REQUEST);
+        logClientError("Argument mismatch error", e, e.getMessage());
         return new ErrorResponse(
                 e.getMessage()
         );
@@ -76,26 +102,68 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     ValidationErrorResponse onConstraintValidationException(ConstraintViolationException e) {
+        countError(e, HttpStatus.BAD_REQUEST);
         ValidationErrorResponse error = new ValidationErrorResponse("Ошибка валидации Constraint");
         for (ConstraintViolation violation : e.getConstraintViolations()) {
             error.getViolations().add(
                     new Violation(violation.getPropertyPath().toString(), violation.getMessage())
             );
         }
-        log.error("Validation errors {} ", error, e);
+        logClientError("Validation errors", e, error);
         return error;
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     ValidationErrorResponse onMethodArgumentNotValidException(MethodArgumentNotValidException e) {
+        countError(e, HttpStatus.BAD_REQUEST);
         ValidationErrorResponse error = new ValidationErrorResponse("Ошибка валидации MethodArgument");
         for (FieldError fieldError : e.getBindingResult().getFieldErrors()) {
             error.getViolations().add(
                     new Violation(fieldError.getField(), fieldError.getDefaultMessage())
             );
         }
-        log.error("Validation errors {} ", error, e);
+        logClientError("Validation errors", e, error);
+        return error;
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ValidationErrorResponse onHandlerMethodValidationException(HandlerMethodValidationException e) {
+        countError(e, HttpStatus.BAD_REQUEST);
+        ValidationErrorResponse error = new ValidationErrorResponse("Ошибка валидации HandlerMethod");
+        for (ParameterValidationResult result : e.getAllValidationResults()) {
+            String parameter = result.getMethodParameter().getParameterName();
+            if (result.getContainerIndex() != null) {
+                parameter = parameter + "[" + result.getContainerIndex() + "]";
+            }
+            for (MessageSourceResolvable resolvable : result.getResolvableErrors()) {
+                String field = resolvable instanceof FieldError fieldError
+                        ? parameter + "." + fieldError.getField()
+                        : parameter;
+                error.getViolations().add(new Violation(field, resolvable.getDefaultMessage()));
+            }
+        }
+        logClientError("Validation errors", e, error);
         return error;
     }
-}
\ No newline at end of file
+
+    // ошибки клиентов по типу исключения и статусу ответа
+    private void countError(Exception e, HttpStatus status) {
+        meterRegistry.counter(ERRORS, "exception", e.getClass().getSimpleName(), "status", String.valueOf(status.value()))
+                .increment();
+    }
+
+    private void logClientError(String message, Exception e, Object details) {
+        long suppressed = clientErrorLog.tryAcquire();
+        if (suppressed < 0) {
+            return;
+        }
+        if (suppressed > 0) {
+            log.warn("{} [{}]: {} (client errors suppressed: {})", message, e.getClass().getSimpleName(), details,
+                    suppressed);
+        } else {
+            log.warn("{} [{}]: {}", message, e.getClass().getSimpleName(), details);
+        }
+    }
+}
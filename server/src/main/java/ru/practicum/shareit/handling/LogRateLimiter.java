@@ -0,0 +1,38 @@
+package ru.practicum.shareit.handling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ограничивает число записей в лог за секунду. Лишние записи не пишутся, а считаются:
+// первая разрешенная запись следующего окна получает их число
+public class LogRateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int permitsPerSecond;
+    private final AtomicLong window = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger permits = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    // -1, если запись нужно пропустить, иначе число записей, пропущенных с прошлой разрешенной
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    long tryAcquire(long nanoTime) {
+        long second = nanoTime / NANOS_PER_SECOND;
+        long current = window.get();
+        if (current != second && window.compareAndSet(current, second)) {
+            permits.set(0);
+        }
+        if (permits.incrementAndGet() <= permitsPerSecond) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,9 +17,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
+import ru.practicum.shareit.item.dto.ItemBatchUpdateRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRequest;
 import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
@@ -24,6 +32,8 @@ import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.constant.ValidationConstant.BATCH_MAX_SIZE;
+import static ru.practicum.shareit.constant.ValidationConstant.IMPORT_MAX_SIZE;
 import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
 
 @RestController
@@ -37,11 +47,27 @@ public class ItemController {
         return itemService.getItems(userId);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(HEADER_X_SHARER_USER_ID) Long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemService.exportByOwner(userId));
+    }
+
     @GetMapping("/{itemId}")
     public ItemWithCommentsDto getById(@PathVariable Long itemId) {
         return itemService.getById(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to
+    ) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
     public ItemDto create(
@@ -51,6 +77,30 @@ public class ItemController {
         return itemService.create(userId, request);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResult> createBatch(
+            @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
+            @RequestBody @Size(min = 1, max = BATCH_MAX_SIZE) List<@Valid NewItemRequest> requests
+    ) {
+        return itemService.createBatch(userId, requests);
+    }
+
+    @PatchMapping("/batch")
+    public List<ItemBatchResult> updateBatch(
+            @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
+            @RequestBody @Size(min = 1, max = BATCH_MAX_SIZE) List<@Valid ItemBatchUpdateRequest> requests
+    ) {
+        return itemService.updateBatch(userId, requests);
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/import")
+    public List<ItemDto> importItems(
+            @RequestBody @Size(min = 1, max = IMPORT_MAX_SIZE) List<@Valid ItemImportRequest> requests
+    ) {
+        return itemService.importItems(requests);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(
             @RequestHeader(HEADER_X_SHARER_USER_ID) Long userId,
@@ -69,8 +119,12 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text);
+    public List<ItemDto> search(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return itemService.search(text, from, size);
     }
 
     // Comments
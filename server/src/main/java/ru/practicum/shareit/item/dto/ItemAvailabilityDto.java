@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private String from;
+    private String to;
+    // свободен весь интервал [from, to)
+    private boolean free;
+    // null: до конца горизонта календаря свободного времени нет
+    private String nextFreeSlot;
+    private List<FreeIntervalDto> freeIntervals;
+}
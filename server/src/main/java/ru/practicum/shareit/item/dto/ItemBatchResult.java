@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// результат по одному элементу пакета, в порядке элементов запроса. status - HTTP-статус, как у одиночной операции
+@Data
+@AllArgsConstructor
+public class ItemBatchResult {
+    private Long id;
+    private int status;
+    private ItemDto item;
+    private String error;
+
+    public static ItemBatchResult ok(int status, ItemDto item) {
+        return new ItemBatchResult(item.getId(), status, item, null);
+    }
+
+    public static ItemBatchResult failed(Long id, int status, String error) {
+        return new ItemBatchResult(id, status, null, error);
+    }
+}
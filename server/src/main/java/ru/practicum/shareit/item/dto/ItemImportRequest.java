@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+// вещь при переносе данных: владелец указывается явно, а не берется из заголовка
+@Data
+public class ItemImportRequest {
+    @NotNull
+    private Long ownerId;
+    @NotBlank
+    private String name;
+    @NotBlank
+    private String description;
+    @NotNull
+    private Boolean available;
+
+    private Long requestId;
+}
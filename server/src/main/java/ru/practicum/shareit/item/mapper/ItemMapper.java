@@ -6,12 +6,15 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.practicum.shareit.comment.mapper.CommentMapperImpl;
-import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.model.CommentView;
+import ru.practicum.shareit.item.dto.ItemBatchUpdateRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRequest;
 import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -24,18 +27,35 @@ public interface ItemMapper {
 
     ItemDto toDto(Item item);
 
+    ItemDto toDto(ItemView item);
+
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    ItemWithCommentsDto toDto(Item item, List<CommentView> comments);
+
     @Mapping(target = "lastBooking", ignore = true)
     @Mapping(target = "nextBooking", ignore = true)
-    ItemWithCommentsDto toDto(Item item, List<Comment> comments);
+    ItemWithCommentsDto toDto(ItemView item, List<CommentView> comments);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(source = "newItemRequest.name", target = "name")
     @Mapping(source = "newItemRequest.description", target = "description")
     Item toItem(NewItemRequest newItemRequest, User user, ItemRequest request);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(source = "importRequest.name", target = "name")
+    @Mapping(source = "importRequest.description", target = "description")
+    Item toItem(ItemImportRequest importRequest, User user, ItemRequest request);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "request", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     Item updateItem(@MappingTarget Item item, UpdateItemRequest request);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "request", ignore = true)
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    Item updateItem(@MappingTarget Item item, ItemBatchUpdateRequest request);
 }
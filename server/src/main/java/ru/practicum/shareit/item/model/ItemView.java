@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.model;
+
+public interface ItemView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+}
@@ -1,14 +1,57 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.config.HibernateCacheConfig.ITEMS_BY_REQUEST_QUERY_REGION;
+import static ru.practicum.shareit.config.HibernateCacheConfig.ITEMS_BY_USER_QUERY_REGION;
+import static ru.practicum.shareit.utils.NdjsonExporter.FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByUserId(Long userId);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ITEMS_BY_USER_QUERY_REGION)
+    })
+    List<ItemView> findByUserIdOrderById(Long userId);
+
+    // выгрузка: строки читаются курсором порциями по FETCH_SIZE, без кэша запросов
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE))
+    Stream<ItemView> streamByUserIdOrderById(Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ITEMS_BY_REQUEST_QUERY_REGION)
+    })
+    @Query("select i from Item i join fetch i.user where i.request.id in ?1 order by i.id")
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
 
-    @Query("select i from Item i where (upper(i.name) like upper(%?1) or upper(i.description) like upper(%?1)) and i.available = true")
-    List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableTrue(String text);
+    // совпадения по названию выше совпадений по описанию. На Postgres обслуживается trigram-индексами (миграция postgresql/V1_1).
+    // В text символы %, _ и \ должны быть экранированы обратной косой чертой
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', ?1, '%')) escape '\\' " +
+            "or upper(i.description) like upper(concat('%', ?1, '%')) escape '\\') " +
+            "order by case when upper(i.name) like upper(concat('%', ?1, '%')) escape '\\' then 0 else 1 end, i.id")
+    List<Item> search(String text, Pageable pageable);
 }
\ No newline at end of file
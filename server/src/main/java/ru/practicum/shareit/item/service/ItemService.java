@@ -1,14 +1,21 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.NewCommentRequest;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
+import ru.practicum.shareit.item.dto.ItemBatchUpdateRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRequest;
 import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
 
@@ -16,15 +23,29 @@ public interface ItemService {
 
     Item getItemById(Long itemId);
 
+    Item getItemByIdForUpdate(Long itemId);
+
+    Map<Long, Item> getItemsByIdsForUpdate(Collection<Long> itemIds);
+
     List<ItemWithCommentsDto> getItems(Long userId);
 
+    StreamingResponseBody exportByOwner(Long userId);
+
+    ItemAvailabilityDto getAvailability(Long itemId, String from, String to);
+
     ItemDto create(Long userId, NewItemRequest request);
 
+    List<ItemDto> importItems(List<ItemImportRequest> requests);
+
+    List<ItemBatchResult> createBatch(Long userId, List<NewItemRequest> requests);
+
+    List<ItemBatchResult> updateBatch(Long userId, List<ItemBatchUpdateRequest> requests);
+
     ItemDto update(Long userId, Long itemId, UpdateItemRequest request);
 
     void remove(Long userId, Long itemId);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, int from, int size);
 
     CommentDto addComment(Long userId, Long itemId, NewCommentRequest request);
 }
@@ -5,79 +5,158 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.querydsl.QSort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.model.QBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemAvailabilityCalendar;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.NewCommentRequest;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.model.CommentView;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
+import ru.practicum.shareit.item.dto.ItemBatchUpdateRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRequest;
 import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemView;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.Monitored;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.utils.DateMapper;
-import ru.practicum.shareit.utils.Tuple;
+import ru.practicum.shareit.utils.NdjsonExporter;
+import ru.practicum.shareit.utils.OffsetPageRequest;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
-import static org.springframework.data.domain.Sort.Direction.DESC;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Slf4j
 @Service
+@Monitored
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    private static final Duration DEFAULT_AVAILABILITY_PERIOD = Duration.ofDays(7);
+
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
     private final UserService userService;
     private final ItemRequestService itemRequestService;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final DateMapper dateMapper;
+    private final NdjsonExporter ndjsonExporter;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
 
     @Override
     public ItemWithCommentsDto getById(Long itemId) {
         Item item = getItemById(itemId);
-        return itemMapper.toDto(item, getCommentsByItems(List.of(item)).getOrDefault(item, List.of()));
+        return itemMapper.toDto(item, getCommentsByItems(List.of(itemId)).getOrDefault(itemId, List.of()));
     }
 
     @Override
     public List<ItemWithCommentsDto> getItems(Long userId) {
         checkUserIsExistingById(userId);
-        List<Item> items = itemRepository.findByUserId(userId);
-        Map<Item, List<Comment>> commentsByItems = getCommentsByItems(items);
-        Map<Item, List<Booking>> bookingsByItems = getBookingsByItems(items);
+        List<ItemView> items = itemRepository.findByUserIdOrderById(userId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream()
+                .map(ItemView::getId)
+                .toList();
+        Map<Long, List<CommentView>> commentsByItems = getCommentsByItems(itemIds);
+        Map<Long, ItemBookingSummary> bookingSummaries = itemBookingSummaryService.getSummaries(itemIds);
 
         return items.stream().map(item -> {
-            ItemWithCommentsDto itemDto = itemMapper.toDto(item, commentsByItems.getOrDefault(item, List.of()));
-            Tuple<String, String> dates = findLastAndNextDates(bookingsByItems.getOrDefault(item, List.of()));
-            itemDto.setLastBooking(dates.first);
-            itemDto.setNextBooking(dates.second);
+            ItemWithCommentsDto itemDto = itemMapper.toDto(item, commentsByItems.getOrDefault(item.getId(), List.of()));
+            ItemBookingSummary summary = bookingSummaries.get(item.getId());
+            if (summary != null) {
+                itemDto.setLastBooking(dateMapper.toString(summary.getLastBooking()));
+                itemDto.setNextBooking(dateMapper.toString(summary.getNextBooking()));
+            }
             return itemDto;
         }).toList();
     }
 
+    // владелец проверяется сразу: после первой выгруженной строки статус ответа уже не изменить
+    @Override
+    public StreamingResponseBody exportByOwner(Long userId) {
+        checkUserIsExistingById(userId);
+        return ndjsonExporter.export(() -> itemRepository.streamByUserIdOrderById(userId), itemMapper::toDto);
+    }
+
+    // отвечает по календарю в памяти; из базы читается только сама вещь (через кэш)
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, String from, String to) {
+        Item item = getItemById(itemId);
+        Instant now = dateMapper.now();
+        Instant fromDate = from == null || from.isBlank() ? now : parseDate(from);
+        Instant toDate = to == null || to.isBlank() ? fromDate.plus(DEFAULT_AVAILABILITY_PERIOD) : parseDate(to);
+        if (!fromDate.isBefore(toDate)) {
+            String errorMessage = String.format("Availability interval is empty: from=%s, to=%s", from, to);
+            log.error(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+        Instant horizonEnd = itemAvailabilityCalendar.getHorizonEnd(now);
+        if (toDate.isAfter(horizonEnd)) {
+            String errorMessage = String.format("Availability is known until %s", dateMapper.toString(horizonEnd));
+            log.error(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+        // недоступную вещь забронировать нельзя ни на какое время
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return new ItemAvailabilityDto(itemId, dateMapper.toString(fromDate), dateMapper.toString(toDate),
+                    false, null, List.of());
+        }
+        List<FreeIntervalDto> freeIntervals = itemAvailabilityCalendar.findFreeIntervals(itemId, fromDate, toDate)
+                .stream()
+                .map(interval -> new FreeIntervalDto(dateMapper.toString(interval.getStart()),
+                        dateMapper.toString(interval.getEnd())))
+                .toList();
+        return new ItemAvailabilityDto(
+                itemId,
+                dateMapper.toString(fromDate),
+                dateMapper.toString(toDate),
+                itemAvailabilityCalendar.isFree(itemId, fromDate, toDate),
+                dateMapper.toString(itemAvailabilityCalendar.findNextFreeSlot(itemId, fromDate)),
+                freeIntervals
+        );
+    }
+
     @Transactional
     @Override
     public ItemDto create(Long userId, NewItemRequest request) {
@@ -91,6 +170,98 @@ public class ItemServiceImpl implements ItemService {
         return itemMapper.toDto(item);
     }
 
+    // владельцы и запросы всей пачки загружаются двумя запросами, вставка идет пакетами
+    @Transactional
+    @Override
+    public List<ItemDto> importItems(List<ItemImportRequest> requests) {
+        Map<Long, User> owners = userService.getUsersByIds(requests.stream()
+                .map(ItemImportRequest::getOwnerId)
+                .collect(toSet()));
+        Map<Long, ItemRequest> itemRequests = itemRequestService.getItemRequestsByIds(requests.stream()
+                .map(ItemImportRequest::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(toSet()));
+        List<Item> items = itemRepository.saveAll(requests.stream()
+                .map(request -> itemMapper.toItem(
+                        request,
+                        owners.get(request.getOwnerId()),
+                        request.getRequestId() != null ? itemRequests.get(request.getRequestId()) : null
+                ))
+                .toList());
+        log.info("Importing items is successful: {} items", items.size());
+        return items.stream()
+                .map(itemMapper::toDto)
+                .toList();
+    }
+
+    // владелец и запросы проверяются один раз на пакет, вещи со ссылкой на несуществующий запрос не создаются
+    @Transactional
+    @Override
+    public List<ItemBatchResult> createBatch(Long userId, List<NewItemRequest> requests) {
+        User user = getUserById(userId);
+        Map<Long, ItemRequest> itemRequests = itemRequestService.findItemRequestsByIds(requests.stream()
+                .map(NewItemRequest::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(toSet()));
+        List<ItemBatchResult> results = new ArrayList<>(requests.size());
+        List<Item> items = new ArrayList<>(requests.size());
+        for (NewItemRequest request : requests) {
+            if (request.getRequestId() != null && !itemRequests.containsKey(request.getRequestId())) {
+                String errorMessage = String.format("Запрос вещи с id=%d не найдено", request.getRequestId());
+                log.error(errorMessage);
+                results.add(ItemBatchResult.failed(null, HttpStatus.NOT_FOUND.value(), errorMessage));
+                items.add(null);
+                continue;
+            }
+            ItemRequest itemRequest = request.getRequestId() != null ? itemRequests.get(request.getRequestId()) : null;
+            items.add(itemMapper.toItem(request, user, itemRequest));
+            results.add(null);
+        }
+        itemRepository.saveAll(items.stream()
+                .filter(Objects::nonNull)
+                .toList());
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) != null) {
+                results.set(i, ItemBatchResult.ok(HttpStatus.CREATED.value(), itemMapper.toDto(items.get(i))));
+            }
+        }
+        log.info("Creating items batch for user id={}: {} items", userId, items.size());
+        return results;
+    }
+
+    // вещи пакета загружаются одним запросом. Чужие и несуществующие вещи не меняются, как и в одиночном update
+    @Transactional
+    @Override
+    public List<ItemBatchResult> updateBatch(Long userId, List<ItemBatchUpdateRequest> requests) {
+        User user = getUserById(userId);
+        Set<Long> itemIds = new HashSet<>();
+        for (ItemBatchUpdateRequest request : requests) {
+            if (!itemIds.add(request.getId())) {
+                String errorMessage = String.format("Item with id=%d is repeated in batch", request.getId());
+                log.error(errorMessage);
+                throw new ValidationException(errorMessage);
+            }
+        }
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(toMap(Item::getId, Function.identity()));
+        List<ItemBatchResult> results = new ArrayList<>(requests.size());
+        for (ItemBatchUpdateRequest request : requests) {
+            Item item = items.get(request.getId());
+            if (item == null || !item.getUser().getId().equals(user.getId())) {
+                String errorMessage = item == null
+                        ? String.format("Элемент id = %d не найден", request.getId())
+                        : String.format("User with id=%d is not owner of item with id=%d", userId, item.getId());
+                log.error(errorMessage);
+                results.add(ItemBatchResult.failed(request.getId(), HttpStatus.NOT_FOUND.value(), errorMessage));
+                continue;
+            }
+            itemMapper.updateItem(item, request);
+            results.add(ItemBatchResult.ok(HttpStatus.OK.value(), itemMapper.toDto(item)));
+        }
+        log.info("Updating items batch for user id={}: {} items", userId, requests.size());
+        return results;
+    }
+
     @Transactional
     @Override
     public ItemDto update(Long userId, Long itemId, UpdateItemRequest request) {
@@ -107,14 +278,15 @@ public class ItemServiceImpl implements ItemService {
         Item item = getItemById(itemId);
         checkUserAccess(userId, item);
         itemRepository.deleteById(itemId);
+        itemAvailabilityCalendar.onItemRemoved(itemId);
     }
 
     @Override
-    public List<ItemDto> search(String text) {
+    public List<ItemDto> search(String text, int from, int size) {
         if (text.isBlank()) {
             return List.of();
         }
-        return itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableTrue(text).stream()
+        return itemRepository.search(escapeLike(text), OffsetPageRequest.of(from, size, Sort.unsorted())).stream()
                 .map(itemMapper::toDto)
                 .toList();
     }
@@ -126,7 +298,7 @@ public class ItemServiceImpl implements ItemService {
         Item item = getItemById(itemId);
         BooleanExpression byBookerId = QBooking.booking.booker.id.eq(userId);
         BooleanExpression byItemId = QBooking.booking.item.id.eq(itemId);
-        BooleanExpression byEnd = QBooking.booking.end.before(DateMapper.now());
+        BooleanExpression byEnd = QBooking.booking.end.before(dateMapper.now());
         Predicate predicate = byBookerId.and(byItemId).and(byEnd);
         boolean bookingExists = bookingRepository.exists(predicate);
         if (!bookingExists) {
@@ -150,33 +322,37 @@ public class ItemServiceImpl implements ItemService {
         });
     }
 
-    private Map<Item, List<Comment>> getCommentsByItems(Collection<Item> items) {
-       return commentRepository.findByItemIn(items, Sort.by(DESC, "created"))
-                .stream()
-                .collect(groupingBy(Comment::getItem, toList()));
-    }
-
-    private Map<Item, List<Booking>> getBookingsByItems(Collection<Item> items) {
-        Sort sort = new QSort(QBooking.booking.start.asc());
-        return bookingRepository.findByItemIn(items, sort)
-                .stream()
-                .collect(groupingBy(Booking::getItem, toList()));
+    // блокирует строку вещи до конца транзакции, чтобы параллельные бронирования одной вещи выполнялись по очереди
+    @Transactional
+    @Override
+    public Item getItemByIdForUpdate(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId).orElseThrow(() -> {
+            String errorMessage = String.format("Элемент id = %d не найден", itemId);
+            log.error(errorMessage);
+            return new NotFoundException(errorMessage);
+        });
     }
 
-    private Tuple<String, String> findLastAndNextDates(List<Booking> bookings) {
-        Instant now = DateMapper.now();
-        String lastBooking = null;
-        String nextBooking = null;
-        for (Booking booking : bookings) {
-            if (booking.getEnd().isBefore(now)) {
-                lastBooking = dateMapper.toString(booking.getEnd());
-            }
-            if (now.isBefore(booking.getStart())) {
-                nextBooking = dateMapper.toString(booking.getStart());
-                break;
+    // блокирует строки вещей в порядке id, чтобы пачки с общими вещами не взаимоблокировались
+    @Transactional
+    @Override
+    public Map<Long, Item> getItemsByIdsForUpdate(Collection<Long> itemIds) {
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(toMap(Item::getId, Function.identity()));
+        for (Long itemId : itemIds) {
+            if (!items.containsKey(itemId)) {
+                String errorMessage = String.format("Элемент id = %d не найден", itemId);
+                log.error(errorMessage);
+                throw new NotFoundException(errorMessage);
             }
         }
-        return new Tuple<>(lastBooking, nextBooking);
+        return items;
+    }
+
+    private Map<Long, List<CommentView>> getCommentsByItems(Collection<Long> itemIds) {
+        return commentRepository.findViewsByItemIdIn(itemIds)
+                .stream()
+                .collect(groupingBy(CommentView::getItemId, toList()));
     }
 
     private void checkUserAccess(Long userId, Item item) {
@@ -196,7 +372,24 @@ public class ItemServiceImpl implements ItemService {
         return itemRequestService.getItemRequest(requestId);
     }
 
+    private Instant parseDate(String date) {
+        try {
+            return dateMapper.toInstant(date);
+        } catch (DateTimeParseException e) {
+            String errorMessage = String.format("Wrong date format: %s", date);
+            log.error(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+    }
+
     private void checkUserIsExistingById(Long userId) {
         userService.getUserById(userId);
     }
+
+    // текст поиска ищется как есть: %, _ и \ в нем не должны работать как шаблон like
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
 }
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingsPage;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// метрики методов сервисов (@Monitored) и репозиториев Spring Data:
+// shareit.method.calls - время вызова с тегом exception (none при успехе), shareit.method.rows - размер
+// результата-коллекции. Метры метода создаются при первом вызове и дальше берутся из своей карты,
+// поэтому вызов не ищет их в реестре. Корзины гистограмм настраиваются в management.metrics.distribution.*
+@Aspect
+@Component
+public class MonitoredAspect {
+
+    public static final String CALLS = "shareit.method.calls";
+    public static final String ROWS = "shareit.method.rows";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MethodKey, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public MonitoredAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(ru.practicum.shareit.metrics.Monitored) || target(org.springframework.data.repository.Repository)")
+    public Object monitor(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> type = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMeters methodMeters = meters.computeIfAbsent(new MethodKey(type, method),
+                key -> new MethodMeters(key.type(), key.method().getName()));
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            methodMeters.failed(e.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        methodMeters.succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        int rows = countRows(result);
+        if (rows >= 0) {
+            methodMeters.rows().record(rows);
+        }
+        return result;
+    }
+
+    // -1: результат не набор строк (сущность, dto, поток выгрузки)
+    private static int countRows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof BookingsPage page) {
+            return page.getBookings().size();
+        }
+        return -1;
+    }
+
+    private static Class<?> findRepositoryInterface(Class<?> type) {
+        if (!Repository.class.isAssignableFrom(type)) {
+            return null;
+        }
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+            if (Repository.class.isAssignableFrom(candidate)
+                    && candidate.getPackageName().startsWith(ShareItServer.class.getPackageName())) {
+                return candidate;
+            }
+        }
+        return type;
+    }
+
+    private record MethodKey(Class<?> type, Method method) {
+    }
+
+    private class MethodMeters {
+        private final String layer;
+        private final String className;
+        private final String methodName;
+        private final Timer succeeded;
+        private final Map<Class<?>, Timer> failed = new ConcurrentHashMap<>();
+        private volatile DistributionSummary rows;
+
+        MethodMeters(Class<?> type, String methodName) {
+            // у репозитория бин - JDK-прокси, имя берется у его интерфейса из приложения
+            Class<?> repository = findRepositoryInterface(type);
+            this.layer = repository != null ? "repository" : "service";
+            this.className = (repository != null ? repository : ClassUtils.getUserClass(type)).getSimpleName();
+            this.methodName = methodName;
+            this.succeeded = timer(NO_EXCEPTION);
+        }
+
+        Timer failed(Class<?> exception) {
+            return failed.computeIfAbsent(exception, key -> timer(key.getSimpleName()));
+        }
+
+        DistributionSummary rows() {
+            DistributionSummary summary = rows;
+            if (summary == null) {
+                summary = DistributionSummary.builder(ROWS)
+                        .description("Rows returned by a service or repository method")
+                        .tags("layer", layer, "class", className, "method", methodName)
+                        .register(meterRegistry);
+                rows = summary;
+            }
+            return summary;
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder(CALLS)
+                    .description("Service and repository method calls")
+                    .tags("layer", layer, "class", className, "method", methodName, "exception", exception)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -3,12 +3,15 @@ package ru.practicum.shareit.request.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.NewItemRequestRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.utils.DateMapper;
 
+import java.util.Collection;
+
 import static org.mapstruct.MappingConstants.ComponentModel.SPRING;
 
 @Mapper(componentModel = SPRING, uses = {DateMapper.class})
@@ -17,6 +20,13 @@ public interface ItemRequestMapper {
     @Mapping(target = "authorName", source = "author.name")
     ItemRequestDto toDto(ItemRequest itemRequest);
 
+    @Mapping(target = "id", source = "itemRequest.id")
+    @Mapping(target = "authorName", source = "itemRequest.author.name")
+    @Mapping(target = "items", source = "items")
+    @Mapping(target = "description", source = "itemRequest.description")
+    @Mapping(target = "created", source = "itemRequest.created")
+    ItemRequestDto toDto(ItemRequest itemRequest, Collection<Item> items);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "items", ignore = true)
     @Mapping(target = "created", ignore = true)
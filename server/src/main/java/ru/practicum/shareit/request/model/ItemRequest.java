@@ -9,9 +9,12 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -19,17 +22,23 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import static ru.practicum.shareit.config.HibernateCacheConfig.ITEM_REQUESTS_REGION;
+import static ru.practicum.shareit.config.HibernateCacheConfig.ITEM_REQUEST_ITEMS_REGION;
+
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ITEM_REQUESTS_REGION)
 @Table(name = "item_requests", schema = "public")
 @Getter
 @Setter
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @SequenceGenerator(name = "item_requests_seq", sequenceName = "item_requests_seq", allocationSize = 50)
     private Long id;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ITEM_REQUEST_ITEMS_REGION)
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private Collection<Item> items = new ArrayList<>();
 
@@ -1,13 +1,20 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>, QuerydslPredicateExecutor<ItemRequest> {
+    @EntityGraph(attributePaths = "author")
     Collection<ItemRequest> findByAuthor(User user, Sort sort);
+
+    @EntityGraph(attributePaths = "author")
+    List<ItemRequest> findAllBy(Pageable pageable);
 }
\ No newline at end of file
@@ -7,6 +7,9 @@ import org.springframework.data.querydsl.QSort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.Monitored;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.NewItemRequestRequest;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -15,17 +18,27 @@ import ru.practicum.shareit.request.model.QItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.OffsetPageRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 @Slf4j
 @Service
+@Monitored
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemRequestService {
 
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
     private final ItemRequestMapper itemRequestMapper;
 
     @Transactional
@@ -49,18 +62,53 @@ public class ItemRequestService {
         });
     }
 
+    public Map<Long, ItemRequest> getItemRequestsByIds(Collection<Long> requestIds) {
+        Map<Long, ItemRequest> itemRequests = findItemRequestsByIds(requestIds);
+        for (Long requestId : requestIds) {
+            if (!itemRequests.containsKey(requestId)) {
+                String errorMessage = String.format("Запрос вещи с id=%d не найдено", requestId);
+                log.error(errorMessage);
+                throw new NotFoundException(errorMessage);
+            }
+        }
+        return itemRequests;
+    }
+
+    // найденные запросы по id, отсутствующих в ответе нет
+    public Map<Long, ItemRequest> findItemRequestsByIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRequestRepository.findAllById(requestIds).stream()
+                .collect(toMap(ItemRequest::getId, Function.identity()));
+    }
+
     public List<ItemRequestDto> getRequestsByAuthor(Long authorId) {
         User author = getUserById(authorId);
         Sort sort = new QSort(QItemRequest.itemRequest.created.asc());
-        return itemRequestRepository.findByAuthor(author, sort).stream()
-                .map(itemRequestMapper::toDto)
-                .toList();
+        return toDtos(itemRequestRepository.findByAuthor(author, sort));
     }
 
-    public List<ItemRequestDto> getAll() {
-        Sort sort = new QSort(QItemRequest.itemRequest.created.asc());
-        return itemRequestRepository.findAll(sort).stream()
-                .map(itemRequestMapper::toDto)
+    public List<ItemRequestDto> getAll(int from, int size) {
+        Sort sort = new QSort(QItemRequest.itemRequest.created.asc(), QItemRequest.itemRequest.id.asc());
+        return toDtos(itemRequestRepository.findAllBy(OffsetPageRequest.of(from, size, sort)));
+    }
+
+    // запросы с авторами и вещи по всем запросам страницы загружаются двумя запросами независимо от размера страницы
+    private List<ItemRequestDto> toDtos(Collection<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .toList();
+        Map<Long, List<Item>> itemsByRequests = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(groupingBy(item -> item.getRequest().getId(), toList()));
+        return itemRequests.stream()
+                .map(itemRequest -> itemRequestMapper.toDto(
+                        itemRequest,
+                        itemsByRequests.getOrDefault(itemRequest.getId(), List.of())
+                ))
                 .toList();
     }
 
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,6 +20,8 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.constant.ValidationConstant.IMPORT_MAX_SIZE;
+
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -41,6 +44,14 @@ public class UserController {
         return userService.create(user);
     }
 
+    @PostMapping("/import")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<UserDto> importUsers(
+            @RequestBody @Size(min = 1, max = IMPORT_MAX_SIZE) List<@Valid NewUserRequest> requests
+    ) {
+        return userService.importUsers(requests);
+    }
+
     @PatchMapping("/{userId}")
     public UserDto update(@PathVariable Long userId, @Valid @RequestBody UpdateUserRequest request) {
         return userService.update(userId, request);
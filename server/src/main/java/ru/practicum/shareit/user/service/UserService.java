@@ -3,8 +3,10 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.metrics.Monitored;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -12,11 +14,19 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
 
 @Slf4j
 @Service
+@Monitored
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
@@ -55,6 +65,46 @@ public class UserService {
         return userMapper.toDto(user);
     }
 
+    // пакетная загрузка: почты проверяются одним запросом, вставка идет пакетами
+    @Transactional
+    public List<UserDto> importUsers(List<NewUserRequest> requests) {
+        Set<String> emails = new HashSet<>();
+        for (NewUserRequest request : requests) {
+            if (!emails.add(request.getEmail())) {
+                log.error("Importing users is failed. email = {} is repeated", request.getEmail());
+                throw new DuplicatedDataException("User with email = " + request.getEmail() + " is repeated");
+            }
+        }
+        List<User> existingUsers = userRepository.findByEmailIn(emails);
+        if (!existingUsers.isEmpty()) {
+            String email = existingUsers.get(0).getEmail();
+            log.error("Importing users is failed. email = {} exists", email);
+            throw new DuplicatedDataException("User with email = " + email + " exists");
+        }
+
+        List<User> users = userRepository.saveAll(requests.stream()
+                .map(userMapper::toUser)
+                .toList());
+        log.info("Importing users is successful: {} users", users.size());
+        return users.stream()
+                .map(userMapper::toDto)
+                .toList();
+    }
+
+    // пользователи по id одним запросом. Если кого-то нет - NotFoundException, как и для одного пользователя
+    public Map<Long, User> getUsersByIds(Collection<Long> userIds) {
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(toMap(User::getId, Function.identity()));
+        for (Long userId : userIds) {
+            if (!users.containsKey(userId)) {
+                String errorMessage = String.format("Пользователь с id = %d не найден", userId);
+                log.error(errorMessage);
+                throw new NotFoundException(errorMessage);
+            }
+        }
+        return users;
+    }
+
     public UserDto update(Long userId, UpdateUserRequest request) {
         User updatedUser = getUserById(userId);
         Optional<User> alreadyExistUser = userRepository.findByEmail(request.getEmail());
@@ -1,43 +1,81 @@
 package ru.practicum.shareit.utils;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
 
 @Component
 public class DateMapper {
 
     private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final ZoneRules ZONE_RULES = ZONE.getRules();
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(ZONE);
 
-    public String toString(Instant date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME
-                .withZone(ZONE);
+    private static final int SECONDS_PER_DAY = 86_400;
+    // "yyyy-MM-ddTHH:mm:ss" и до 9 знаков дробной части с точкой
+    private static final int MAX_LENGTH = 29;
+    private static final int NO_FRACTION_LENGTH = 19;
+    private static final long MIN_FAST_EPOCH_DAY = -719_528; // 0000-01-01
+    private static final long MAX_FAST_EPOCH_DAY = 2_932_896; // 9999-12-31
+    // буфер форматирования на поток: toString вызывается на каждую дату ответа, а строка копирует из него символы
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private final Clock clock;
+
+    public DateMapper() {
+        this(Clock.systemDefaultZone());
+    }
 
-        return date != null ? formatter.format(date) : null;
+    @Autowired
+    public DateMapper(Clock clock) {
+        this.clock = clock;
+    }
+
+    public String toString(Instant date) {
+        if (date == null) {
+            return null;
+        }
+        ZoneOffset offset = ZONE_RULES.getOffset(date);
+        long localSecond = date.getEpochSecond() + offset.getTotalSeconds();
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+        // годы вне 0..9999 печатаются со знаком, их оставляем стандартному форматтеру
+        if (epochDay < MIN_FAST_EPOCH_DAY || epochDay > MAX_FAST_EPOCH_DAY) {
+            return FORMATTER.format(date);
+        }
+        char[] buffer = BUFFER.get();
+        int length = writeDate(buffer, epochDay);
+        buffer[length++] = 'T';
+        length = writeTwoDigits(buffer, length, secondOfDay / 3600);
+        buffer[length++] = ':';
+        length = writeTwoDigits(buffer, length, secondOfDay / 60 % 60);
+        buffer[length++] = ':';
+        length = writeTwoDigits(buffer, length, secondOfDay % 60);
+        length = writeFraction(buffer, length, date.getNano());
+        return new String(buffer, 0, length);
     }
 
     public Instant toInstant(String stringDate) {
         if (stringDate == null) {
             return null;
         }
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME
-                .withZone(ZoneId.systemDefault());
-        ZonedDateTime localDateTime = LocalDateTime.parse(stringDate, formatter).atZone(ZONE);
-        return localDateTime.toInstant();
+        return parse(stringDate).atZone(ZONE).toInstant();
     }
 
     public LocalDateTime toLocalDateTime(String stringDate) {
         if (stringDate == null) {
             return null;
         }
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME
-                .withZone(ZoneId.systemDefault());
-        ZonedDateTime localDateTime = LocalDateTime.parse(stringDate, formatter).atZone(ZONE);
-        return localDateTime.toLocalDateTime();
+        // через зону, как и раньше: время из перехода на летнее время сдвигается на существующее
+        return parse(stringDate).atZone(ZONE).toLocalDateTime();
     }
 
     public Instant toInstant(LocalDateTime date) {
@@ -47,7 +85,94 @@ public class DateMapper {
         return date.atZone(ZONE).toInstant();
     }
 
-    public static Instant now() {
-        return LocalDateTime.now().atZone(ZONE).toInstant();
+    public Instant now() {
+        return clock.instant();
+    }
+
+    // быстрый разбор "yyyy-MM-ddTHH:mm:ss[.SSSSSSSSS]", остальные формы и ошибки - стандартному парсеру
+    private static LocalDateTime parse(String value) {
+        int length = value.length();
+        if (length < NO_FRACTION_LENGTH || length > MAX_LENGTH || length == NO_FRACTION_LENGTH + 1
+                || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':'
+                || (length > NO_FRACTION_LENGTH && value.charAt(NO_FRACTION_LENGTH) != '.')) {
+            return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        int nano = 0;
+        if (length > NO_FRACTION_LENGTH) {
+            int fractionDigits = length - NO_FRACTION_LENGTH - 1;
+            nano = digits(value, NO_FRACTION_LENGTH + 1, fractionDigits);
+            for (int i = fractionDigits; i < 9 && nano >= 0; i++) {
+                nano *= 10;
+            }
+        }
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || nano < 0) {
+            return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            // некорректные значения полей: стандартный парсер бросит DateTimeParseException с позицией ошибки
+            return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+    }
+
+    // -1, если в диапазоне есть не цифра
+    private static int digits(String value, int from, int count) {
+        int result = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    // дата по номеру дня от эпохи, алгоритм days_from_civil в обратную сторону (H. Hinnant)
+    private static int writeDate(char[] buffer, long epochDay) {
+        long days = epochDay + 719_468;
+        long era = Math.floorDiv(days, 146_097);
+        long dayOfEra = days - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        int length = writeTwoDigits(buffer, 0, year / 100);
+        length = writeTwoDigits(buffer, length, year % 100);
+        buffer[length++] = '-';
+        length = writeTwoDigits(buffer, length, month);
+        buffer[length++] = '-';
+        return writeTwoDigits(buffer, length, day);
+    }
+
+    private static int writeTwoDigits(char[] buffer, int position, int value) {
+        buffer[position] = (char) ('0' + value / 10);
+        buffer[position + 1] = (char) ('0' + value % 10);
+        return position + 2;
+    }
+
+    // как ISO_LOCAL_TIME: дробная часть без хвостовых нулей и только если не равна нулю
+    private static int writeFraction(char[] buffer, int position, int nano) {
+        if (nano == 0) {
+            return position;
+        }
+        buffer[position++] = '.';
+        int divisor = 100_000_000;
+        while (nano > 0) {
+            buffer[position++] = (char) ('0' + nano / divisor);
+            nano %= divisor;
+            divisor /= 10;
+        }
+        return position;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// выгрузка в NDJSON (по JSON-объекту на строку) без сборки списка в памяти. Строки читаются курсором
+// в read-only транзакции и сразу пишутся генератором Jackson в ответ. Каждые FLUSH_ROWS строк
+// накопленное отправляется клиенту, а прочитанные сущности отсоединяются, чтобы контекст не рос
+@Component
+public class NdjsonExporter {
+
+    public static final int FETCH_SIZE = 500;
+    private static final int FLUSH_ROWS = FETCH_SIZE;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonExporter(ObjectMapper objectMapper, TransactionTemplate transactionTemplate) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(),
+                transactionTemplate);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // запрос выполняется при записи ответа, в потоке асинхронной обработки, поэтому транзакция открывается здесь
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> rows, Function<T, ?> mapper) {
+        return out -> transactionTemplate.executeWithoutResult(status -> write(rows, mapper, out));
+    }
+
+    private <T> void write(Supplier<Stream<T>> rows, Function<T, ?> mapper, OutputStream out) {
+        try (Stream<T> stream = rows.get();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // разделитель строк пишем сами, иначе Jackson ставит пробел между объектами верхнего уровня
+            generator.setRootValueSeparator(null);
+            long count = 0;
+            for (Iterator<T> iterator = stream.iterator(); iterator.hasNext(); ) {
+                generator.writeObject(mapper.apply(iterator.next()));
+                generator.writeRaw('\n');
+                if (++count % FLUSH_ROWS == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.ValidationException;
+
+// from/size из API задают смещение в строках, а не номер страницы
+@Slf4j
+public class OffsetPageRequest extends PageRequest {
+    private final long offset;
+
+    public OffsetPageRequest(long offset, int size) {
+        this(offset, size, Sort.unsorted());
+    }
+
+    public OffsetPageRequest(long offset, int size, Sort sort) {
+        super((int) (offset / size), size, sort);
+        this.offset = offset;
+    }
+
+    public static OffsetPageRequest of(int from, int size, Sort sort) {
+        if (from < 0 || size <= 0) {
+            String errorMessage = String.format("Wrong page parameters: from=%d, size=%d", from, size);
+            log.error(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+        return new OffsetPageRequest(from, size, sort);
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+}
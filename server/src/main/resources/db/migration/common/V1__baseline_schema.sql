@@ -0,0 +1,110 @@
+-- схема на момент перехода на миграции. Все операторы идемпотентны: в базах, созданных через schema.sql,
+-- миграция выполняется поверх существующих таблиц (spring.flyway.baseline-version=0)
+
+CREATE TABLE IF NOT EXISTS users (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(512) NOT NULL,
+  registration_date TIMESTAMP,
+  CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS item_requests (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  description VARCHAR NOT NULL,
+  author_id BIGINT NOT NULL,
+  created TIMESTAMP NOT NULL,
+  CONSTRAINT fk_item_requests_to_users FOREIGN KEY(author_id) REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS items (
+   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+   user_id BIGINT,
+   request_id BIGINT,
+   name VARCHAR(255) NOT NULL,
+   description VARCHAR NOT NULL,
+   available BOOLEAN NOT NULL,
+   CONSTRAINT fk_items_to_users FOREIGN KEY(user_id) REFERENCES users(id),
+   CONSTRAINT fk_items_to_requests FOREIGN KEY(request_id) REFERENCES item_requests(id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+   booker_id BIGINT,
+   item_id BIGINT,
+   create_date TIMESTAMP NOT NULL,
+   start_date TIMESTAMP NOT NULL,
+   end_date TIMESTAMP NOT NULL,
+   status VARCHAR(50) NOT NULL,
+   CONSTRAINT fk_bookings_to_users FOREIGN KEY(booker_id) REFERENCES users(id),
+   CONSTRAINT fk_bookings_to_items FOREIGN KEY(item_id) REFERENCES items(id),
+   UNIQUE(booker_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_id_start_date ON bookings (item_id, start_date);
+
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+   item_id BIGINT PRIMARY KEY NOT NULL,
+   last_booking_end TIMESTAMP,
+   next_booking_start TIMESTAMP,
+   refresh_at TIMESTAMP,
+   waiting_count BIGINT NOT NULL DEFAULT 0,
+   approved_count BIGINT NOT NULL DEFAULT 0,
+   rejected_count BIGINT NOT NULL DEFAULT 0,
+   CONSTRAINT fk_item_booking_summaries_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+-- сводки для броней, созданных до появления таблицы. Даты досчитаются при первом чтении
+INSERT INTO item_booking_summaries (item_id, refresh_at, waiting_count, approved_count, rejected_count)
+SELECT b.item_id,
+       TIMESTAMP '1970-01-01 00:00:00',
+       SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN b.status = 'APPROVED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END)
+FROM bookings b
+WHERE b.item_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM item_booking_summaries s WHERE s.item_id = b.item_id)
+GROUP BY b.item_id;
+
+CREATE TABLE IF NOT EXISTS comments (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  text VARCHAR(512) NOT NULL,
+  item_id BIGINT,
+  author_id BIGINT,
+  created_date TIMESTAMP,
+  CONSTRAINT fk_comments_to_users FOREIGN KEY(author_id) REFERENCES users(id),
+  CONSTRAINT fk_comments_to_items FOREIGN KEY(item_id) REFERENCES items(id),
+  UNIQUE(item_id, author_id)
+);
+
+CREATE TABLE IF NOT EXISTS booking_events (
+  id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY NOT NULL,
+  type VARCHAR(50) NOT NULL,
+  booking_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
+  status VARCHAR(50) NOT NULL,
+  start_date TIMESTAMP NOT NULL,
+  end_date TIMESTAMP NOT NULL,
+  created TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_offsets (
+  consumer VARCHAR(100) PRIMARY KEY NOT NULL,
+  last_event_id BIGINT NOT NULL
+);
+
+-- id выдает Hibernate из последовательностей блоками по 50 (pooled-lo), это позволяет пакетную вставку.
+-- Identity оставлен для ручных вставок, у таблиц из прошлых версий схемы он переводится в BY DEFAULT
+ALTER TABLE users ALTER COLUMN id SET GENERATED BY DEFAULT;
+ALTER TABLE item_requests ALTER COLUMN id SET GENERATED BY DEFAULT;
+ALTER TABLE items ALTER COLUMN id SET GENERATED BY DEFAULT;
+ALTER TABLE bookings ALTER COLUMN id SET GENERATED BY DEFAULT;
+ALTER TABLE comments ALTER COLUMN id SET GENERATED BY DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,19 @@
+-- индексы под предикаты и сортировки частых запросов. Равенство - первой колонкой, сортировка - следующими
+
+-- вещи владельца: ItemRepository.findByUserIdOrderById
+CREATE INDEX IF NOT EXISTS ix_items_user_id_id ON items (user_id, id);
+
+-- вещи по запросам: ItemRepository.findByRequestIdIn
+CREATE INDEX IF NOT EXISTS ix_items_request_id_id ON items (request_id, id);
+
+-- бронирования пользователя: BookingService.getBookingsByBooker, сортировка (create_date, id) по убыванию
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_id_create_date_id ON bookings (booker_id, create_date DESC, id DESC);
+
+-- отзывы к вещам: CommentRepository.findViewsByItemIdIn
+CREATE INDEX IF NOT EXISTS ix_comments_item_id_created_date ON comments (item_id, created_date);
+
+-- запросы автора: ItemRequestRepository.findByAuthor
+CREATE INDEX IF NOT EXISTS ix_item_requests_author_id_created ON item_requests (author_id, created);
+
+-- все запросы постранично: ItemRequestRepository.findAllBy, сортировка (created, id)
+CREATE INDEX IF NOT EXISTS ix_item_requests_created_id ON item_requests (created, id);
@@ -0,0 +1,3 @@
+-- брони вещей владельца: BookingPageRepository.findOwnerPage. Вещи владельца находятся по ix_items_user_id_id,
+-- брони каждой вещи - по этому индексу уже в порядке (create_date, id) по убыванию, в том числе после курсора
+CREATE INDEX IF NOT EXISTS ix_bookings_item_id_create_date_id ON bookings (item_id, create_date DESC, id DESC);
@@ -0,0 +1,2 @@
+-- разбор просроченных броней: BookingRepository.findExpiredForUpdate, WAITING брони по возрастанию id
+CREATE INDEX IF NOT EXISTS ix_bookings_status_id ON bookings (status, id);
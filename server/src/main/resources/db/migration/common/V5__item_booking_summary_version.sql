@@ -0,0 +1,2 @@
+-- версия сводки: досчет дат при чтении (ItemBookingSummaryRepository.updateDates) не затирает параллельное изменение
+ALTER TABLE item_booking_summaries ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- владелец вещи в брони: лента владельца (BookingPageRepository.findOwnerPage) идет по одному индексу в порядке
+-- (create_date, id) по убыванию, а не сортирует брони всех вещей владельца на каждой странице
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+UPDATE bookings b SET owner_id = (SELECT i.user_id FROM items i WHERE i.id = b.item_id) WHERE b.owner_id IS NULL;
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_id_create_date_id ON bookings (owner_id, create_date DESC, id DESC);
@@ -0,0 +1,2 @@
+-- сохранение досчитанных дат по расписанию: ItemBookingSummaryRepository.findStale, устаревшие сводки по refresh_at
+CREATE INDEX IF NOT EXISTS ix_item_booking_summaries_refresh_at ON item_booking_summaries (refresh_at);
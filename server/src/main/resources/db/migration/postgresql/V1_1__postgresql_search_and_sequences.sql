@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING gin (upper(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING gin (upper(description) gin_trgm_ops);
+
+-- последовательности не должны отставать от id, выданных identity до перехода на них
+SELECT setval('users_seq', (SELECT MAX(id) FROM users)) WHERE (SELECT MAX(id) FROM users) >= (SELECT last_value FROM users_seq);
+SELECT setval('item_requests_seq', (SELECT MAX(id) FROM item_requests)) WHERE (SELECT MAX(id) FROM item_requests) >= (SELECT last_value FROM item_requests_seq);
+SELECT setval('items_seq', (SELECT MAX(id) FROM items)) WHERE (SELECT MAX(id) FROM items) >= (SELECT last_value FROM items_seq);
+SELECT setval('bookings_seq', (SELECT MAX(id) FROM bookings)) WHERE (SELECT MAX(id) FROM bookings) >= (SELECT last_value FROM bookings_seq);
+SELECT setval('comments_seq', (SELECT MAX(id) FROM comments)) WHERE (SELECT MAX(id) FROM comments) >= (SELECT last_value FROM comments_seq);
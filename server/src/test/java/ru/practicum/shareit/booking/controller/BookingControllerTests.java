@@ -2,18 +2,21 @@ package ru.practicum.shareit.booking.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingsPage;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -30,12 +33,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.WebConstant.HEADER_X_NEXT_CURSOR;
 import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(controllers = BookingController.class)
+@Import(SimpleMeterRegistry.class)
 class BookingControllerTests {
 
     @Autowired
@@ -77,21 +83,23 @@ class BookingControllerTests {
         // Given
         long userId = 2L;
         List<BookingDto> bookings = TestData.createBookings();
-        when(service.getBookingsByBooker(userId, BookingState.ALL)).thenReturn(bookings);
+        when(service.getBookingsByBooker(userId, BookingState.ALL, 0, 2, null))
+                .thenReturn(new BookingsPage(bookings, "next"));
 
         // When
-        MvcResult result = mvc.perform(get("/bookings?state=ALL")
+        MvcResult result = mvc.perform(get("/bookings?state=ALL&from=0&size=2")
                 .header(HEADER_X_SHARER_USER_ID, userId)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HEADER_X_NEXT_CURSOR, "next"))
                 .andReturn();
 
         String json = result.getResponse().getContentAsString();
         List<BookingDto> actualBookings = objectMapper.readValue(json, new TypeReference<>(){});
 
         // Then
-        Mockito.verify(service).getBookingsByBooker(userId, BookingState.ALL);
+        Mockito.verify(service).getBookingsByBooker(userId, BookingState.ALL, 0, 2, null);
         Mockito.verifyNoMoreInteractions(service);
         assertThat(actualBookings).isEqualTo(bookings);
     }
@@ -101,21 +109,23 @@ class BookingControllerTests {
         // Given
         long userId = 2L;
         List<BookingDto> bookings = TestData.createBookings();
-        when(service.getBookingsByOwner(userId, BookingState.ALL)).thenReturn(bookings);
+        when(service.getBookingsByOwner(userId, BookingState.ALL, 0, 10, "cursor"))
+                .thenReturn(new BookingsPage(bookings, null));
 
         // When
-        MvcResult result = mvc.perform(get("/bookings/owner?state=ALL")
+        MvcResult result = mvc.perform(get("/bookings/owner?state=ALL&cursor=cursor")
                 .header(HEADER_X_SHARER_USER_ID, userId)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HEADER_X_NEXT_CURSOR))
                 .andReturn();
 
         String json = result.getResponse().getContentAsString();
         List<BookingDto> actualBookings = objectMapper.readValue(json, new TypeReference<>(){});
 
         // Then
-        Mockito.verify(service).getBookingsByOwner(userId, BookingState.ALL);
+        Mockito.verify(service).getBookingsByOwner(userId, BookingState.ALL, 0, 10, "cursor");
         Mockito.verifyNoMoreInteractions(service);
         assertThat(actualBookings).isEqualTo(bookings);
     }
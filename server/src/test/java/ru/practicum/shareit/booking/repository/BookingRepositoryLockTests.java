@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+// SQL блокирующих запросов в диалекте PostgreSQL: подсказку тайм-аута блокировки, которую Hibernate не распознал,
+// он молча пропускает, и тогда разбор просроченных броней ждал бы чужих блокировок.
+// SQL запоминается до подготовки запроса: H2 даже в режиме PostgreSQL не понимает for no key update,
+// поэтому само выполнение падает с синтаксической ошибкой
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:booking-locks;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                        "ru.practicum.shareit.booking.repository.BookingRepositoryLockTests$SqlRecorder"
+        }
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingRepositoryLockTests {
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clear() {
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void findExpiredForUpdate_renderSkipLocked_postgresDialect() {
+        // Given
+        Instant now = Instant.now();
+
+        // When
+        catchThrowable(() -> transactionTemplate.executeWithoutResult(status ->
+                bookingRepository.findExpiredForUpdate(now, now, PageRequest.of(0, 10))));
+
+        // Then
+        assertThat(SqlRecorder.STATEMENTS)
+                .filteredOn(sql -> sql.contains("bookings"))
+                .singleElement()
+                .asString()
+                .endsWith("for no key update skip locked");
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.repository;
 
+import com.querydsl.core.types.dsl.BooleanExpression;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.assertj.core.api.AssertionsForClassTypes;
@@ -9,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.querydsl.QSort;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingDatesView;
 import ru.practicum.shareit.booking.model.QBooking;
 import ru.practicum.shareit.helpers.TestData;
 import ru.practicum.shareit.item.model.Item;
@@ -16,10 +18,15 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
 @Transactional
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.NONE
@@ -95,4 +102,79 @@ public class BookingRepositoryTests {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void findPage_returnLimitedPageSortedByCreateDate_EntitiesWasSaved() {
+        // Given
+        User owner = userRepository.save(TestData.createUser("email1@mail.ru"));
+        User booker1 = userRepository.save(TestData.createUser("email2@mail.ru"));
+        User booker2 = userRepository.save(TestData.createUser());
+        Item item = itemRepository.save(TestData.createItem(owner));
+        Booking booking1 = TestData.createBooking(booker1, item);
+        booking1.setCreateDate(Instant.now().minusSeconds(60));
+        bookingRepository.save(booking1);
+        Booking booking2 = bookingRepository.save(TestData.createBooking(booker2, item));
+        BooleanExpression byItemId = QBooking.booking.item.id.eq(item.getId());
+
+        // When
+        List<Booking> firstPage = bookingRepository.findPage(byItemId, 0, 1,
+                QBooking.booking.createDate.desc(), QBooking.booking.id.desc());
+        List<Booking> secondPage = bookingRepository.findPage(byItemId, 1, 1,
+                QBooking.booking.createDate.desc(), QBooking.booking.id.desc());
+
+        // Then
+        assertThat(firstPage).extracting(Booking::getId).containsExactly(booking2.getId());
+        assertThat(secondPage).extracting(Booking::getId).containsExactly(booking1.getId());
+    }
+
+    @Test
+    void findOwnerPage_returnBookingsOfOwnerItems_EntitiesWasSaved() {
+        // Given
+        User owner = userRepository.save(TestData.createUser("email1@mail.ru"));
+        User otherOwner = userRepository.save(TestData.createUser("email2@mail.ru"));
+        User booker = userRepository.save(TestData.createUser());
+        Item item1 = itemRepository.save(TestData.createItem(owner));
+        Item item2 = itemRepository.save(TestData.createItem(owner));
+        Item otherItem = itemRepository.save(TestData.createItem(otherOwner));
+        Booking booking1 = TestData.createBooking(booker, item1);
+        booking1.setCreateDate(Instant.now().minusSeconds(60));
+        bookingRepository.save(booking1);
+        Booking booking2 = bookingRepository.save(TestData.createBooking(booker, item2));
+        bookingRepository.save(TestData.createBooking(booker, otherItem));
+
+        // When
+        List<Booking> page = bookingRepository.findOwnerPage(owner.getId(), null, 0, 10,
+                QBooking.booking.createDate.desc(), QBooking.booking.id.desc());
+        List<Booking> filteredPage = bookingRepository.findOwnerPage(owner.getId(),
+                QBooking.booking.item.id.eq(item1.getId()), 0, 10, QBooking.booking.id.desc());
+
+        // Then
+        assertThat(page).extracting(Booking::getId).containsExactly(booking2.getId(), booking1.getId());
+        assertThat(filteredPage).extracting(Booking::getId).containsExactly(booking1.getId());
+    }
+
+    @Test
+    void findBookingDatesByItemIdIn_returnLastAndNextDates_EntitiesWasSaved() {
+        // Given
+        User owner = userRepository.save(TestData.createUser("email1@mail.ru"));
+        User booker1 = userRepository.save(TestData.createUser("email2@mail.ru"));
+        User booker2 = userRepository.save(TestData.createUser("email3@mail.ru"));
+        User booker3 = userRepository.save(TestData.createUser());
+        Item item = itemRepository.save(TestData.createItem(owner));
+        Item notBookedItem = itemRepository.save(TestData.createItem(owner));
+        Booking pastBooking = bookingRepository.save(TestData.createBooking(booker1, item, LocalDateTime.now().minusDays(3)));
+        Booking nextBooking = bookingRepository.save(TestData.createBooking(booker2, item, LocalDateTime.now().plusDays(1)));
+        bookingRepository.save(TestData.createBooking(booker3, item, LocalDateTime.now().plusDays(5)));
+
+        // When
+        List<ItemBookingDatesView> dates = bookingRepository.findBookingDatesByItemIdIn(
+                List.of(item.getId(), notBookedItem.getId()), Instant.now());
+
+        // Then
+        assertThat(dates).hasSize(1);
+        ItemBookingDatesView itemDates = dates.get(0);
+        assertThat(itemDates.getItemId()).isEqualTo(item.getId());
+        assertThat(itemDates.getLastBooking()).isCloseTo(pastBooking.getEnd(), within(1, ChronoUnit.MILLIS));
+        assertThat(itemDates.getNextBooking()).isCloseTo(nextBooking.getStart(), within(1, ChronoUnit.MILLIS));
+    }
+
+}
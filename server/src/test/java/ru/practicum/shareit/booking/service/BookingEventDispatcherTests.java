@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.OutboxOffsetRepository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingEventDispatcherTests {
+
+    private final BookingEventDispatcher dispatcher;
+    private final BookingEventRepository eventRepository;
+    private final OutboxOffsetRepository offsetRepository;
+
+    @Test
+    void dispatch_deliverEventsAndMoveOffset_NewEventsSaved() {
+        // Given
+        TestListener listener = new TestListener();
+        List<Long> eventIds = saveEvents(3);
+        dispatcher.replay(listener.getName(), eventIds.get(0));
+
+        // When
+        int delivered = dispatcher.dispatch(listener);
+        int deliveredAgain = dispatcher.dispatch(listener);
+
+        // Then
+        assertThat(delivered).isEqualTo(3);
+        assertThat(deliveredAgain).isZero();
+        assertThat(listener.receivedIds).isEqualTo(eventIds);
+        assertThat(offsetRepository.findById(listener.getName()).orElseThrow().getLastEventId())
+                .isEqualTo(eventIds.get(2));
+    }
+
+    @Test
+    void dispatch_redeliverEvents_ListenerFailed() {
+        // Given
+        TestListener listener = new TestListener();
+        List<Long> eventIds = saveEvents(2);
+        dispatcher.replay(listener.getName(), eventIds.get(0));
+        listener.failuresLeft = 1;
+
+        // When
+        assertThatThrownBy(() -> dispatcher.dispatch(listener)).isInstanceOf(IllegalStateException.class);
+        int delivered = dispatcher.dispatch(listener);
+
+        // Then
+        assertThat(delivered).isEqualTo(2);
+        assertThat(listener.receivedIds).isEqualTo(eventIds);
+    }
+
+    @Test
+    void dispatch_stopBeforeGap_gapIsYoung() {
+        // Given
+        TestListener listener = new TestListener();
+        List<Long> eventIds = saveEvents(3);
+        // пропуск в id: событие еще не закоммичено
+        eventRepository.deleteById(eventIds.get(1));
+        dispatcher.replay(listener.getName(), eventIds.get(0));
+
+        // When
+        int delivered = dispatcher.dispatch(listener);
+
+        // Then
+        assertThat(delivered).isEqualTo(1);
+        assertThat(listener.receivedIds).containsExactly(eventIds.get(0));
+        assertThat(offsetRepository.findById(listener.getName()).orElseThrow().getLastEventId())
+                .isEqualTo(eventIds.get(0));
+    }
+
+    @Test
+    void dispatch_skipGap_gapIsOlderThanTimeout() {
+        // Given
+        TestListener listener = new TestListener();
+        Instant created = Instant.now().minus(1, ChronoUnit.MINUTES);
+        List<Long> eventIds = saveEvents(3, created);
+        // пропуск в id старше gap-timeout: транзакция события откатилась
+        eventRepository.deleteById(eventIds.get(1));
+        dispatcher.replay(listener.getName(), eventIds.get(0));
+
+        // When
+        int delivered = dispatcher.dispatch(listener);
+
+        // Then
+        assertThat(delivered).isEqualTo(2);
+        assertThat(listener.receivedIds).containsExactly(eventIds.get(0), eventIds.get(2));
+    }
+
+    @Test
+    void dispatch_createOffsetOnce_instancesStartConsumerTogether() throws Exception {
+        // Given
+        TestListener listener = new TestListener();
+        int instances = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Integer> dispatch = () -> {
+            start.await();
+            return dispatcher.dispatch(listener);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(instances);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < instances; i++) {
+                results.add(executor.submit(dispatch));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(offsetRepository.findById(listener.getName())).isPresent();
+    }
+
+    @Test
+    void replay_redeliverEvents_OffsetMovedBack() {
+        // Given
+        TestListener listener = new TestListener();
+        List<Long> eventIds = saveEvents(3);
+        dispatcher.replay(listener.getName(), eventIds.get(0));
+        dispatcher.dispatch(listener);
+        listener.receivedIds.clear();
+
+        // When
+        dispatcher.replay(listener.getName(), eventIds.get(1));
+        dispatcher.dispatch(listener);
+
+        // Then
+        assertThat(listener.receivedIds).isEqualTo(eventIds.subList(1, 3));
+    }
+
+    private List<Long> saveEvents(int count) {
+        return saveEvents(count, Instant.now());
+    }
+
+    private List<Long> saveEvents(int count, Instant created) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BookingEvent event = new BookingEvent();
+            event.setType(BookingEventType.BOOKING_CREATED);
+            event.setBookingId((long) i);
+            event.setItemId(1L);
+            event.setBookerId(2L);
+            event.setOwnerId(3L);
+            event.setStatus(BookingStatus.WAITING);
+            event.setStart(Instant.now().plus(1, ChronoUnit.DAYS));
+            event.setEnd(Instant.now().plus(2, ChronoUnit.DAYS));
+            event.setCreated(created);
+            ids.add(eventRepository.save(event).getId());
+        }
+        return ids;
+    }
+
+    private static class TestListener implements BookingEventListener {
+        private final String name = "test-" + UUID.randomUUID();
+        private final List<Long> receivedIds = new ArrayList<>();
+        private int failuresLeft;
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void onEvents(List<BookingEvent> events) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("Listener failure");
+            }
+            events.forEach(event -> receivedIds.add(event.getId()));
+        }
+    }
+}
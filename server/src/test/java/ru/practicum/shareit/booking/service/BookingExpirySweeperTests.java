@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingImportRequest;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.NewUserRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// своя база: разбор переводит в EXPIRED все просроченные брони, в том числе созданные другими тестами
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:booking-expiry",
+                "shareit.booking-expiry.batch-size=2"
+        }
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingExpirySweeperTests {
+
+    private final BookingExpirySweeper sweeper;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void sweepAll_expireStartedWaitingBookingsInBatches_ownerDidNotApprove() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookings = importBookings(
+                createBookingImportRequest(now.minusHours(1), BookingStatus.WAITING),
+                createBookingImportRequest(now.minusHours(2), BookingStatus.WAITING),
+                createBookingImportRequest(now.minusHours(3), BookingStatus.WAITING),
+                createBookingImportRequest(now.minusHours(1), BookingStatus.APPROVED),
+                createBookingImportRequest(now.plusDays(1), BookingStatus.WAITING)
+        );
+        double expiredBefore = meterRegistry.counter("shareit.booking.expiry.bookings").count();
+        double batchesBefore = meterRegistry.counter("shareit.booking.expiry.batches").count();
+
+        // When
+        sweeper.sweepAll();
+
+        // Then
+        assertThat(bookings)
+                .extracting(booking -> getStatus(booking.getId()))
+                .containsExactly(BookingStatus.EXPIRED, BookingStatus.EXPIRED, BookingStatus.EXPIRED,
+                        BookingStatus.APPROVED, BookingStatus.WAITING);
+        assertThat(meterRegistry.counter("shareit.booking.expiry.bookings").count() - expiredBefore).isEqualTo(3);
+        assertThat(meterRegistry.counter("shareit.booking.expiry.batches").count() - batchesBefore).isEqualTo(2);
+    }
+
+    @Test
+    void expireWaiting_expireFutureBooking_ttlIsExceeded() {
+        // Given
+        BookingDto booking = importBookings(
+                createBookingImportRequest(LocalDateTime.now().plusDays(1), BookingStatus.WAITING)).get(0);
+
+        // When
+        bookingService.expireWaiting(Instant.now().plus(1, ChronoUnit.MINUTES), Integer.MAX_VALUE);
+
+        // Then
+        assertThat(getStatus(booking.getId())).isEqualTo(BookingStatus.EXPIRED);
+    }
+
+    @Test
+    void create_reopenExpiredBooking_bookerBooksItemAgain() {
+        // Given
+        BookingImportRequest request = createBookingImportRequest(LocalDateTime.now().minusHours(1),
+                BookingStatus.WAITING);
+        BookingDto expired = importBookings(request).get(0);
+        sweeper.sweepAll();
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+
+        // When
+        BookingDto reopened = bookingService.create(request.getBookerId(),
+                new NewBookingRequest(request.getItemId(), start, start.plusDays(1)));
+
+        // Then
+        assertThat(reopened.getId()).isEqualTo(expired.getId());
+        assertThat(reopened.getStatus()).isEqualTo(BookingStatus.WAITING.name());
+        assertThat(getStatus(expired.getId())).isEqualTo(BookingStatus.WAITING);
+    }
+
+    private List<BookingDto> importBookings(BookingImportRequest... requests) {
+        return bookingService.importBookings(List.of(requests));
+    }
+
+    private BookingStatus getStatus(Long bookingId) {
+        return bookingRepository.findById(bookingId).orElseThrow().getStatus();
+    }
+
+    // у каждой брони свои владелец, вещь и арендатор: пара (арендатор, вещь) уникальна
+    private BookingImportRequest createBookingImportRequest(LocalDateTime start, BookingStatus status) {
+        String prefix = UUID.randomUUID().toString();
+        List<UserDto> users = userService.importUsers(List.of(
+                new NewUserRequest(prefix + "owner@mail.ru", "owner"),
+                new NewUserRequest(prefix + "booker@mail.ru", "booker")
+        ));
+        ItemImportRequest itemRequest = new ItemImportRequest();
+        itemRequest.setOwnerId(users.get(0).getId());
+        itemRequest.setName("ItemName");
+        itemRequest.setDescription("ItemDesc");
+        itemRequest.setAvailable(true);
+        ItemDto item = itemService.importItems(List.of(itemRequest)).get(0);
+
+        BookingImportRequest request = new BookingImportRequest();
+        request.setBookerId(users.get(1).getId());
+        request.setItemId(item.getId());
+        request.setStart(start);
+        request.setEnd(start.plusDays(1));
+        request.setStatus(status);
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingImportRequest;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.NewUserRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingServiceImportTests {
+
+    private static final int COUNT = 200;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void importBookings_insertInBatchesAndUpdateSummaries_usersItemsAndBookingsImported() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String prefix = UUID.randomUUID().toString();
+        List<UserDto> users = userService.importUsers(IntStream.range(0, COUNT)
+                .mapToObj(i -> new NewUserRequest(prefix + i + "@mail.ru", "user" + i))
+                .toList());
+        Long ownerId = users.get(0).getId();
+        List<ItemDto> items = itemService.importItems(IntStream.range(0, 2)
+                .mapToObj(i -> createItemImportRequest(ownerId))
+                .toList());
+        List<BookingImportRequest> requests = new ArrayList<>();
+        for (int i = 1; i < COUNT; i++) {
+            requests.add(createBookingImportRequest(users.get(i).getId(), items.get(i % 2).getId(),
+                    i % 3 == 0 ? BookingStatus.APPROVED : BookingStatus.WAITING));
+        }
+        statistics.clear();
+
+        // When
+        List<BookingDto> bookings = bookingService.importBookings(requests);
+
+        // Then
+        assertThat(bookings).hasSize(COUNT - 1);
+        assertThat(bookings).allSatisfy(booking -> assertThat(booking.getId()).isNotNull());
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(COUNT - 1);
+        // вставки пачками: число подготовленных запросов не растет вместе с числом броней
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+        ItemBookingSummary summary = itemBookingSummaryService.getSummaries(List.of(items.get(1).getId()))
+                .get(items.get(1).getId());
+        assertThat(summary.getWaitingCount() + summary.getApprovedCount()).isEqualTo(COUNT / 2);
+        assertThat(summary.getLastBooking()).isNotNull();
+    }
+
+    @Test
+    void importBookings_throwValidationException_bookingAlreadyExists() {
+        // Given
+        String prefix = UUID.randomUUID().toString();
+        List<UserDto> users = userService.importUsers(List.of(
+                new NewUserRequest(prefix + "owner@mail.ru", "owner"),
+                new NewUserRequest(prefix + "booker@mail.ru", "booker")
+        ));
+        ItemDto item = itemService.importItems(List.of(createItemImportRequest(users.get(0).getId()))).get(0);
+        BookingImportRequest request = createBookingImportRequest(users.get(1).getId(), item.getId(),
+                BookingStatus.APPROVED);
+        bookingService.importBookings(List.of(request));
+
+        // When / Then
+        assertThatThrownBy(() -> bookingService.importBookings(List.of(request)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private static ItemImportRequest createItemImportRequest(Long ownerId) {
+        ItemImportRequest request = new ItemImportRequest();
+        request.setOwnerId(ownerId);
+        request.setName("Item");
+        request.setDescription("Imported item");
+        request.setAvailable(true);
+        return request;
+    }
+
+    private static BookingImportRequest createBookingImportRequest(Long bookerId, Long itemId, BookingStatus status) {
+        BookingImportRequest request = new BookingImportRequest();
+        request.setBookerId(bookerId);
+        request.setItemId(itemId);
+        request.setStart(LocalDateTime.now().minusDays(3));
+        request.setEnd(LocalDateTime.now().minusDays(2));
+        request.setStatus(status);
+        return request;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,32 +12,40 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.querydsl.QSort;
+import org.springframework.context.annotation.Import;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingsPage;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingEventType;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.QBooking;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.helpers.TestData;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.utils.DateMapper;
+import ru.practicum.shareit.utils.NdjsonExporter;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 @DataJpaTest
 @ExtendWith(MockitoExtension.class)
 @ComponentScan("ru.practicum")
+@Import(SimpleMeterRegistry.class)
 class BookingServiceTests {
 
     @MockBean
@@ -44,11 +54,26 @@ class BookingServiceTests {
     private UserService userService;
     @MockBean
     private BookingRepository bookingRepository;
+    @MockBean
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @MockBean
+    private BookingEventRepository bookingEventRepository;
+    @MockBean
+    private NdjsonExporter ndjsonExporter;
+    @MockBean
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+    @MockBean
+    private BookingExpirySweeper bookingExpirySweeper;
     @Autowired
     private DateMapper dateMapper;
     @Autowired
     private BookingService bookingService;
 
+    private static final OrderSpecifier<?>[] ORDER = {
+            QBooking.booking.createDate.desc(),
+            QBooking.booking.id.desc()
+    };
+
     private final String startDate = "2000-01-01T10:00:00";
     private final String endDate = "2000-01-02T10:00:00";
     private User owner;
@@ -90,7 +115,7 @@ class BookingServiceTests {
         );
 
         when(bookingRepository.findByBookerIdAndItemId(booker.getId(), item.getId())).thenReturn(Optional.empty());
-        when(itemService.getItemById(item.getId())).thenReturn(item);
+        when(itemService.getItemByIdForUpdate(item.getId())).thenReturn(item);
         when(userService.getUserById(booker.getId())).thenReturn(booker);
 
         // When
@@ -102,9 +127,19 @@ class BookingServiceTests {
 
         Mockito.verify(bookingRepository).save(any());
         Mockito.verify(bookingRepository).findByBookerIdAndItemId(booker.getId(), item.getId());
+        Mockito.verify(bookingRepository).exists(approvedOverlap(null));
         Mockito.verifyNoMoreInteractions(bookingRepository);
 
-        Mockito.verify(itemService).getItemById(item.getId());
+        Mockito.verify(itemBookingSummaryService).onCreated(any());
+        Mockito.verifyNoMoreInteractions(itemBookingSummaryService);
+
+        Mockito.verify(bookingEventRepository).save(argThat(event ->
+                event.getType() == BookingEventType.BOOKING_CREATED
+                        && event.getOwnerId().equals(owner.getId())
+                        && event.getStatus() == BookingStatus.WAITING));
+        Mockito.verifyNoMoreInteractions(bookingEventRepository);
+
+        Mockito.verify(itemService).getItemByIdForUpdate(item.getId());
         Mockito.verifyNoMoreInteractions(itemService);
 
         Mockito.verify(userService).getUserById(booker.getId());
@@ -118,7 +153,7 @@ class BookingServiceTests {
 
         item.setAvailable(true);
 
-        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
         when(userService.getUserById(owner.getId())).thenReturn(owner);
 
         // When
@@ -126,18 +161,104 @@ class BookingServiceTests {
 
         // Then
 
-        checkActualBooking(actualBookingDto, item, booker, false, BookingStatus.APPROVED);
+        checkActualBooking(actualBookingDto, item, booker, true, BookingStatus.APPROVED);
 
         Mockito.verify(bookingRepository).save(any());
-        Mockito.verify(bookingRepository).findById(booking.getId());
+        Mockito.verify(bookingRepository).findByIdForUpdate(booking.getId());
+        Mockito.verify(bookingRepository).exists(approvedOverlap(booking.getId()));
         Mockito.verifyNoMoreInteractions(bookingRepository);
 
+        Mockito.verify(itemBookingSummaryService).onStatusChanged(booking, BookingStatus.WAITING);
+        Mockito.verifyNoMoreInteractions(itemBookingSummaryService);
+
+        Mockito.verify(bookingEventRepository).save(argThat(event ->
+                event.getType() == BookingEventType.BOOKING_APPROVED
+                        && event.getBookingId().equals(booking.getId())
+                        && event.getStatus() == BookingStatus.APPROVED));
+        Mockito.verifyNoMoreInteractions(bookingEventRepository);
+
+        Mockito.verify(itemService).getItemByIdForUpdate(item.getId());
         Mockito.verifyNoMoreInteractions(itemService);
 
         Mockito.verify(userService).getUserById(owner.getId());
         Mockito.verifyNoMoreInteractions(userService);
     }
 
+    @Test
+    void approve_lockItem_bookingIsRejected() {
+
+        // Given
+
+        when(bookingRepository.findByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
+        when(userService.getUserById(owner.getId())).thenReturn(owner);
+
+        // When
+        BookingDto actualBookingDto = bookingService.approve(owner.getId(), booking.getId(), false);
+
+        // Then
+
+        checkActualBooking(actualBookingDto, item, booker, true, BookingStatus.REJECTED);
+
+        Mockito.verify(bookingRepository).save(any());
+        Mockito.verify(bookingRepository).findByIdForUpdate(booking.getId());
+        Mockito.verifyNoMoreInteractions(bookingRepository);
+
+        Mockito.verify(itemBookingSummaryService).onStatusChanged(booking, BookingStatus.WAITING);
+        Mockito.verifyNoMoreInteractions(itemBookingSummaryService);
+
+        Mockito.verify(itemService).getItemByIdForUpdate(item.getId());
+        Mockito.verifyNoMoreInteractions(itemService);
+        Mockito.verifyNoInteractions(itemAvailabilityCalendar);
+    }
+
+    @Test
+    void create_throwException_itemIsApprovedForOverlappingPeriod() {
+
+        // Given
+
+        item.setAvailable(true);
+
+        NewBookingRequest request = new NewBookingRequest(
+                item.getId(),
+                dateMapper.toLocalDateTime(startDate),
+                dateMapper.toLocalDateTime(endDate)
+        );
+
+        when(bookingRepository.findByBookerIdAndItemId(booker.getId(), item.getId())).thenReturn(Optional.empty());
+        when(bookingRepository.exists(approvedOverlap(null))).thenReturn(true);
+        when(itemService.getItemByIdForUpdate(item.getId())).thenReturn(item);
+        when(userService.getUserById(booker.getId())).thenReturn(booker);
+
+        // When / Then
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), request))
+                .isInstanceOf(ValidationException.class);
+
+        Mockito.verify(bookingRepository).findByBookerIdAndItemId(booker.getId(), item.getId());
+        Mockito.verify(bookingRepository).exists(approvedOverlap(null));
+        Mockito.verifyNoMoreInteractions(bookingRepository);
+        Mockito.verifyNoInteractions(itemBookingSummaryService);
+    }
+
+    @Test
+    void approve_throwException_otherBookingIsApprovedForOverlappingPeriod() {
+
+        // Given
+
+        when(bookingRepository.findByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.exists(approvedOverlap(booking.getId()))).thenReturn(true);
+        when(userService.getUserById(owner.getId())).thenReturn(owner);
+
+        // When / Then
+        assertThatThrownBy(() -> bookingService.approve(owner.getId(), booking.getId(), true))
+                .isInstanceOf(ValidationException.class);
+
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.WAITING);
+        Mockito.verify(bookingRepository).findByIdForUpdate(booking.getId());
+        Mockito.verify(bookingRepository).exists(approvedOverlap(booking.getId()));
+        Mockito.verifyNoMoreInteractions(bookingRepository);
+        Mockito.verifyNoInteractions(itemBookingSummaryService);
+    }
+
     @Test
     void getById_returnBooking_UserIsOwner() {
         // Given
@@ -198,18 +319,18 @@ class BookingServiceTests {
         booking.setStatus(BookingStatus.APPROVED);
 
         BooleanExpression byBookerId = QBooking.booking.booker.id.eq(booker.getId());
-        Sort sort = new QSort(QBooking.booking.createDate.desc());
-        when(bookingRepository.findAll(byBookerId, sort)).thenReturn(List.of(booking));
+        when(bookingRepository.findPage(byBookerId, 0L, 11, ORDER)).thenReturn(List.of(booking));
         when(userService.getUserById(booker.getId())).thenReturn(booker);
 
         // When
-        List<BookingDto> actualBookings = bookingService.getBookingsByBooker(booker.getId(), BookingState.ALL);
+        BookingsPage actualPage = bookingService.getBookingsByBooker(booker.getId(), BookingState.ALL, 0, 10, null);
 
         // Then
 
-        checkActualBooking(actualBookings.get(0), item, booker, false, BookingStatus.APPROVED);
+        checkActualBooking(actualPage.getBookings().get(0), item, booker, false, BookingStatus.APPROVED);
+        assertThat(actualPage.getNextCursor()).isNull();
 
-        Mockito.verify(bookingRepository).findAll(byBookerId, sort);
+        Mockito.verify(bookingRepository).findPage(byBookerId, 0L, 11, ORDER);
         Mockito.verifyNoMoreInteractions(bookingRepository);
 
         Mockito.verifyNoMoreInteractions(itemService);
@@ -222,19 +343,17 @@ class BookingServiceTests {
     void getBookingsByOwner_returnListOfBookings_UserIsOwner() {
         // Given
 
-        BooleanExpression byOwnerId = QBooking.booking.item.id.eq(owner.getId());
-        Sort sort = new QSort(QBooking.booking.createDate.desc());
-        when(bookingRepository.findAll(byOwnerId, sort)).thenReturn(List.of(booking));
+        when(bookingRepository.findOwnerPage(owner.getId(), null, 0L, 11, ORDER)).thenReturn(List.of(booking));
         when(userService.getUserById(owner.getId())).thenReturn(owner);
 
         // When
-        List<BookingDto> actualBookings = bookingService.getBookingsByOwner(owner.getId(), BookingState.ALL);
+        BookingsPage actualPage = bookingService.getBookingsByOwner(owner.getId(), BookingState.ALL, 0, 10, null);
 
         // Then
 
-        checkActualBooking(actualBookings.get(0), item, booker, true, BookingStatus.WAITING);
+        checkActualBooking(actualPage.getBookings().get(0), item, booker, true, BookingStatus.WAITING);
 
-        Mockito.verify(bookingRepository).findAll(byOwnerId, sort);
+        Mockito.verify(bookingRepository).findOwnerPage(owner.getId(), null, 0L, 11, ORDER);
         Mockito.verifyNoMoreInteractions(bookingRepository);
 
         Mockito.verifyNoMoreInteractions(itemService);
@@ -243,6 +362,92 @@ class BookingServiceTests {
         Mockito.verifyNoMoreInteractions(userService);
     }
 
+    @Test
+    void getBookingsByBooker_returnPageWithNextCursor_BookerHasMoreBookings() {
+        // Given
+
+        Booking nextBooking = createBooking(booking.getId() + 1, booker, item);
+        BooleanExpression byBookerId = QBooking.booking.booker.id.eq(booker.getId());
+        when(bookingRepository.findPage(byBookerId, 0L, 2, ORDER)).thenReturn(List.of(booking, nextBooking));
+        when(userService.getUserById(booker.getId())).thenReturn(booker);
+
+        // When
+        BookingsPage actualPage = bookingService.getBookingsByBooker(booker.getId(), BookingState.ALL, 0, 1, null);
+
+        // Then
+
+        assertThat(actualPage.getBookings()).hasSize(1);
+        BookingCursor cursor = BookingCursor.decode(actualPage.getNextCursor());
+        assertThat(cursor.getId()).isEqualTo(booking.getId());
+        assertThat(cursor.getCreateDate()).isEqualTo(booking.getCreateDate());
+
+        Mockito.verify(bookingRepository).findPage(byBookerId, 0L, 2, ORDER);
+        Mockito.verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void getBookingsByBooker_continueAfterCursor_CursorIsPassed() {
+        // Given
+
+        BookingCursor cursor = BookingCursor.of(booking);
+        BooleanExpression byBookerId = QBooking.booking.booker.id.eq(booker.getId());
+        BooleanExpression afterCursor = byBookerId.and(
+                QBooking.booking.createDate.lt(cursor.getCreateDate())
+                        .or(QBooking.booking.createDate.eq(cursor.getCreateDate())
+                                .and(QBooking.booking.id.lt(cursor.getId())))
+        );
+        when(bookingRepository.findPage(afterCursor, 0L, 11, ORDER)).thenReturn(List.of());
+        when(userService.getUserById(booker.getId())).thenReturn(booker);
+
+        // When
+        BookingsPage actualPage = bookingService.getBookingsByBooker(booker.getId(), BookingState.ALL, 5, 10, cursor.encode());
+
+        // Then
+
+        assertThat(actualPage.getBookings()).isEmpty();
+        assertThat(actualPage.getNextCursor()).isNull();
+
+        Mockito.verify(bookingRepository).findPage(afterCursor, 0L, 11, ORDER);
+        Mockito.verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void getBookingsByBooker_throwException_CursorIsMalformed() {
+        // Given
+
+        when(userService.getUserById(booker.getId())).thenReturn(booker);
+
+        // When / Then
+        assertThatThrownBy(() -> bookingService.getBookingsByBooker(booker.getId(), BookingState.ALL, 0, 10, "???"))
+                .isInstanceOf(ValidationException.class);
+
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getBookingsByBooker_throwException_SizeIsAboveLimit() {
+        // Given
+
+        when(userService.getUserById(booker.getId())).thenReturn(booker);
+
+        // When / Then
+        assertThatThrownBy(() -> bookingService.getBookingsByBooker(booker.getId(), BookingState.ALL, 0, 101, null))
+                .isInstanceOf(ValidationException.class);
+
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
+    private BooleanExpression approvedOverlap(Long excludedBookingId) {
+        BooleanExpression predicate = QBooking.booking.item.id.eq(item.getId())
+                .and(QBooking.booking.status.eq(BookingStatus.APPROVED))
+                .and(QBooking.booking.start.lt(dateMapper.toInstant(endDate)))
+                .and(QBooking.booking.end.gt(dateMapper.toInstant(startDate)));
+        if (excludedBookingId != null) {
+            predicate = predicate.and(QBooking.booking.id.ne(excludedBookingId));
+        }
+        return predicate;
+    }
+
     private Booking createBooking(long bookingId, User booker, Item item) {
         Booking booking = new Booking();
         booking.setId(bookingId);
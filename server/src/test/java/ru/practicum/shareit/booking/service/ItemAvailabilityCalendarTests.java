@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingSlotView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.FreeInterval;
+import ru.practicum.shareit.booking.model.OutboxOffset;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OutboxOffsetRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.DateMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemAvailabilityCalendarTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:30:00Z");
+    private static final long ITEM_ID = 1L;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingEventRepository eventRepository = mock(BookingEventRepository.class);
+    private final OutboxOffsetRepository offsetRepository = mock(OutboxOffsetRepository.class);
+    private final ItemAvailabilityCalendar calendar = new ItemAvailabilityCalendar(
+            bookingRepository,
+            eventRepository,
+            offsetRepository,
+            new DateMapper(Clock.fixed(NOW, ZoneOffset.UTC)),
+            Duration.ofDays(2),
+            Duration.ofSeconds(10)
+    );
+
+    // подтвержденные брони вещи: 12:00-14:00 и 16:15-16:45 (занимает весь слот 16:00-17:00)
+    @BeforeEach
+    void build() {
+        when(bookingRepository.findApprovedSlots(any(), any())).thenReturn(List.of(
+                slot(ITEM_ID, "2026-01-01T12:00:00Z", "2026-01-01T14:00:00Z"),
+                slot(ITEM_ID, "2026-01-01T16:15:00Z", "2026-01-01T16:45:00Z")
+        ));
+        BookingEvent lastEvent = new BookingEvent();
+        lastEvent.setId(5L);
+        when(eventRepository.findFirstByCreatedBeforeOrderByIdDesc(NOW.minusSeconds(10)))
+                .thenReturn(Optional.of(lastEvent));
+        calendar.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void afterSingletonsInstantiated_saveOwnOutboxOffset_calendarIsBuilt() {
+        verify(offsetRepository).save(argThat((OutboxOffset offset) ->
+                offset.getConsumer().equals(calendar.getName()) && offset.getLastEventId() == 5L));
+    }
+
+    @Test
+    void onEvents_markSlotsBusy_bookingApprovedOnOtherInstance() {
+        calendar.onEvents(List.of(
+                event(BookingEventType.BOOKING_APPROVED, 2L, "20:00", "22:00"),
+                event(BookingEventType.BOOKING_CREATED, 3L, "20:00", "22:00")
+        ));
+
+        assertThat(calendar.isFree(2L, at("21:00"), at("21:30"))).isFalse();
+        assertThat(calendar.isFree(3L, at("20:00"), at("22:00"))).isTrue();
+    }
+
+    @Test
+    void isFree_checkSlotsOverlap_itemHasApprovedBookings() {
+        assertThat(calendar.isFree(ITEM_ID, at("11:00"), at("12:00"))).isTrue();
+        assertThat(calendar.isFree(ITEM_ID, at("11:00"), at("12:30"))).isFalse();
+        assertThat(calendar.isFree(ITEM_ID, at("16:50"), at("17:30"))).isFalse();
+        assertThat(calendar.isFree(ITEM_ID, at("14:00"), at("16:00"))).isTrue();
+        assertThat(calendar.isFree(2L, at("12:00"), at("14:00"))).isTrue();
+    }
+
+    @Test
+    void isFree_returnFalse_intervalIsInPast() {
+        assertThat(calendar.isFree(ITEM_ID, at("08:00"), at("09:00"))).isFalse();
+    }
+
+    @Test
+    void findNextFreeSlot_skipBusySlots_fromIsInsideBooking() {
+        assertThat(calendar.findNextFreeSlot(ITEM_ID, at("12:30"))).isEqualTo(at("14:00"));
+        assertThat(calendar.findNextFreeSlot(ITEM_ID, at("15:20"))).isEqualTo(at("15:20"));
+        assertThat(calendar.findNextFreeSlot(ITEM_ID, at("08:00"))).isEqualTo(NOW);
+    }
+
+    @Test
+    void findFreeIntervals_clipByNowAndBounds_itemHasApprovedBookings() {
+        List<FreeInterval> intervals = calendar.findFreeIntervals(ITEM_ID, at("09:00"), at("17:30"));
+
+        assertThat(intervals)
+                .extracting(FreeInterval::getStart, FreeInterval::getEnd)
+                .containsExactly(
+                        tuple(NOW, at("12:00")),
+                        tuple(at("14:00"), at("16:00")),
+                        tuple(at("17:00"), at("17:30"))
+                );
+    }
+
+    @Test
+    void onApproved_markSlotsBusy_noTransaction() {
+        Item item = new Item();
+        item.setId(2L);
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setStart(at("20:00"));
+        booking.setEnd(at("22:00"));
+        booking.setStatus(BookingStatus.APPROVED);
+
+        calendar.onApproved(booking);
+
+        assertThat(calendar.isFree(2L, at("21:00"), at("21:30"))).isFalse();
+        assertThat(calendar.findNextFreeSlot(2L, at("20:00"))).isEqualTo(at("22:00"));
+    }
+
+    @Test
+    void onItemRemoved_forgetBookings_itemWasRemoved() {
+        calendar.onItemRemoved(ITEM_ID);
+
+        assertThat(calendar.isFree(ITEM_ID, at("12:00"), at("17:00"))).isTrue();
+    }
+
+    private static Instant at(String time) {
+        return Instant.parse("2026-01-01T" + time + ":00Z");
+    }
+
+    private static BookingEvent event(BookingEventType type, Long itemId, String start, String end) {
+        BookingEvent event = new BookingEvent();
+        event.setType(type);
+        event.setItemId(itemId);
+        event.setStart(at(start));
+        event.setEnd(at(end));
+        return event;
+    }
+
+    private static BookingSlotView slot(Long itemId, String start, String end) {
+        return new BookingSlotView() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Instant getStart() {
+                return Instant.parse(start);
+            }
+
+            @Override
+            public Instant getEnd() {
+                return Instant.parse(end);
+            }
+        };
+    }
+}
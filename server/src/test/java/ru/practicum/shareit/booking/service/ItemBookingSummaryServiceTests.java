@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.helpers.TestData;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemBookingSummaryServiceTests {
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void onCreated_updateCountsAndDates_BookingsWereCreated() {
+        // Given
+        User owner = userRepository.save(TestData.createUser("email1@mail.ru"));
+        User booker1 = userRepository.save(TestData.createUser("email2@mail.ru"));
+        User booker2 = userRepository.save(TestData.createUser());
+        Item item = itemRepository.save(TestData.createItem(owner));
+        Booking pastBooking = bookingRepository.save(TestData.createBooking(booker1, item, LocalDateTime.now().minusDays(3)));
+        Booking nextBooking = bookingRepository.save(TestData.createBooking(booker2, item, LocalDateTime.now().plusDays(1)));
+
+        // When
+        itemBookingSummaryService.onCreated(nextBooking);
+        itemBookingSummaryService.onCreated(pastBooking);
+        nextBooking.setStatus(BookingStatus.APPROVED);
+        itemBookingSummaryService.onStatusChanged(nextBooking, BookingStatus.WAITING);
+
+        // Then
+        ItemBookingSummary summary = itemBookingSummaryService.getSummaries(List.of(item.getId())).get(item.getId());
+        assertThat(summary.getLastBooking()).isEqualTo(pastBooking.getEnd());
+        assertThat(summary.getNextBooking()).isEqualTo(nextBooking.getStart());
+        assertThat(summary.getRefreshAt()).isEqualTo(nextBooking.getStart());
+        assertThat(summary.getWaitingCount()).isEqualTo(1);
+        assertThat(summary.getApprovedCount()).isEqualTo(1);
+        assertThat(summary.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void getSummaries_rollForwardDates_NextBookingHasStarted() {
+        // Given
+        User owner = userRepository.save(TestData.createUser("email1@mail.ru"));
+        User booker = userRepository.save(TestData.createUser());
+        Item item = itemRepository.save(TestData.createItem(owner));
+        Item notBookedItem = itemRepository.save(TestData.createItem(owner));
+        Booking booking = bookingRepository.save(TestData.createBooking(booker, item, LocalDateTime.now().plusDays(1)));
+        itemBookingSummaryService.onCreated(booking);
+        // время прошло: бронь уже закончилась, а сводка все еще считает ее следующей
+        booking.setStart(Instant.now().minus(2, ChronoUnit.DAYS));
+        booking.setEnd(Instant.now().minus(1, ChronoUnit.DAYS));
+        bookingRepository.save(booking);
+        ItemBookingSummary stale = summaryRepository.findById(item.getId()).orElseThrow();
+        stale.setRefreshAt(Instant.now().minus(2, ChronoUnit.DAYS));
+        summaryRepository.saveAndFlush(stale);
+
+        // When
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(
+                List.of(item.getId(), notBookedItem.getId()));
+
+        // Then
+        assertThat(summaries).containsOnlyKeys(item.getId());
+        ItemBookingSummary summary = summaries.get(item.getId());
+        assertThat(summary.getLastBooking()).isCloseTo(booking.getEnd(), within(1, ChronoUnit.MILLIS));
+        assertThat(summary.getNextBooking()).isNull();
+        assertThat(summary.getRefreshAt()).isNull();
+        assertThat(summary.getWaitingCount()).isEqualTo(1);
+        // чтение ничего не сохраняет
+        assertThat(summaryRepository.findById(item.getId()).orElseThrow().getVersion()).isEqualTo(stale.getVersion());
+    }
+
+    @Test
+    void refreshStale_saveDates_NextBookingHasStarted() {
+        // Given
+        User owner = userRepository.save(TestData.createUser("email1@mail.ru"));
+        User booker = userRepository.save(TestData.createUser());
+        Item item = itemRepository.save(TestData.createItem(owner));
+        Booking booking = bookingRepository.save(TestData.createBooking(booker, item, LocalDateTime.now().plusDays(1)));
+        itemBookingSummaryService.onCreated(booking);
+        booking.setStart(Instant.now().minus(2, ChronoUnit.DAYS));
+        booking.setEnd(Instant.now().minus(1, ChronoUnit.DAYS));
+        bookingRepository.save(booking);
+        ItemBookingSummary stale = summaryRepository.findById(item.getId()).orElseThrow();
+        stale.setRefreshAt(Instant.now().minus(2, ChronoUnit.DAYS));
+        summaryRepository.saveAndFlush(stale);
+
+        // When
+        int count = itemBookingSummaryService.refreshStale(1000);
+
+        // Then
+        assertThat(count).isPositive();
+        // сохраненная сводка больше не устаревшая
+        assertThat(summaryRepository.findStale(Instant.now(), PageRequest.of(0, 1000)))
+                .extracting(ItemBookingSummary::getItemId)
+                .doesNotContain(item.getId());
+    }
+
+    @Test
+    void updateDates_skipUpdate_summaryChangedAfterRead() {
+        // Given
+        User owner = userRepository.save(TestData.createUser("email1@mail.ru"));
+        User booker1 = userRepository.save(TestData.createUser("email2@mail.ru"));
+        User booker2 = userRepository.save(TestData.createUser());
+        Item item = itemRepository.save(TestData.createItem(owner));
+        Booking nextBooking = bookingRepository.save(TestData.createBooking(booker1, item, LocalDateTime.now().plusDays(1)));
+        itemBookingSummaryService.onCreated(nextBooking);
+        Long readVersion = summaryRepository.findById(item.getId()).orElseThrow().getVersion();
+        // прошедшая бронь меняет только lastBooking, refreshAt остается прежним
+        Booking pastBooking = bookingRepository.save(TestData.createBooking(booker2, item, LocalDateTime.now().minusDays(3)));
+        itemBookingSummaryService.onCreated(pastBooking);
+
+        // When
+        int updated = summaryRepository.updateDates(item.getId(), null, nextBooking.getStart(), nextBooking.getStart(),
+                readVersion);
+
+        // Then
+        assertThat(updated).isZero();
+        assertThat(itemBookingSummaryService.getSummaries(List.of(item.getId())).get(item.getId()).getLastBooking())
+                .isEqualTo(pastBooking.getEnd());
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagConfigTests {
+
+    private final Filter filter = new EtagConfig().etagFilter().getFilter();
+
+    @Test
+    void doFilter_addEtag_getResourceById() throws Exception {
+        MockHttpServletResponse response = filter("GET", "/items/1");
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+    }
+
+    @Test
+    void doFilter_skipEtag_collectionSearchOrExport() throws Exception {
+        assertThat(filter("GET", "/items").getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(filter("GET", "/items/search").getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(filter("GET", "/items/export").getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(filter("GET", "/requests/all").getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(filter("GET", "/items/1/availability").getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(filter("PATCH", "/items/1").getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    private MockHttpServletResponse filter(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> res.getWriter().write("{\"id\":1}");
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.HttpRequest;
+
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SampledRequestConditionTests {
+
+    private final Predicate<HttpRequest> condition = new LogbookConfig().requestCondition(1,
+            "/bookings=0.5, /bookings/export=0,/actuator=0");
+
+    @Test
+    void getRate_useLongestPrefix_pathsOverlap() {
+        SampledRequestCondition sampled = (SampledRequestCondition) condition;
+
+        assertThat(sampled.getRate("/bookings/export")).isZero();
+        assertThat(sampled.getRate("/bookings/1")).isEqualTo(0.5);
+        assertThat(sampled.getRate("/items")).isEqualTo(1);
+    }
+
+    @Test
+    void test_neverLogExports_rateIsZero() {
+        assertThat(IntStream.range(0, 100).mapToObj(i -> condition.test(request("/bookings/export"))))
+                .containsOnly(false);
+        assertThat(IntStream.range(0, 100).mapToObj(i -> condition.test(request("/items/1"))))
+                .containsOnly(true);
+    }
+
+    @Test
+    void test_logSomeRequests_rateIsFractional() {
+        long logged = IntStream.range(0, 1000).filter(i -> condition.test(request("/bookings"))).count();
+
+        assertThat(logged).isBetween(350L, 650L);
+    }
+
+    @Test
+    void requestCondition_useDefaultRate_pathRatesAreEmpty() {
+        SampledRequestCondition sampled = (SampledRequestCondition) new LogbookConfig().requestCondition(0.1, "");
+
+        assertThat(sampled.getRate("/items")).isEqualTo(0.1);
+        assertThat(new SampledRequestCondition(0, Map.of()).test(request("/items"))).isFalse();
+    }
+
+    private static HttpRequest request(String path) {
+        HttpRequest request = mock(HttpRequest.class);
+        when(request.getPath()).thenReturn(path);
+        return request;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.helpers;
+
+import lombok.Value;
+
+import java.util.List;
+
+// результат замера одного вызова: запросы по JDBC, статистика Hibernate и выделенная потоком память
+@Value
+public class CallProfile {
+    List<String> statements;
+    long preparedStatements;
+    long entityLoads;
+    long entityFetches;
+    long collectionFetches;
+    long allocatedBytes;
+
+    public int getStatementCount() {
+        return statements.size();
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.helpers;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.lang.management.ManagementFactory;
+
+// замеряет вызов в текущем потоке. Первый вызов прогревает JIT, загрузку классов и ленивые пересчёты
+// (например, сводки бронирований) и не учитывается. Перед замером кэши Hibernate очищаются,
+// поэтому число запросов - худший случай, не зависящий от предыдущих тестов
+@RequiredArgsConstructor
+public class CallProfiler {
+
+    private final StatementCounter statementCounter;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CallProfile profile(Call call) throws Exception {
+        call.run();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        statistics.clear();
+        statementCounter.reset();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        call.run();
+
+        long allocatedBytes = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new CallProfile(
+                statementCounter.getStatements(),
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionFetchCount(),
+                allocatedBytes
+        );
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.helpers;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+// подключается в тест через @Import: оборачивает DataSource счётчиком запросов и добавляет CallProfiler
+@TestConfiguration(proxyBeanMethods = false)
+public class CallProfilingConfig {
+
+    // static: обработчик бинов создаётся раньше DataSource
+    @Bean
+    public static StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public CallProfiler callProfiler(
+            StatementCounter statementCounter,
+            EntityManagerFactory entityManagerFactory
+    ) {
+        return new CallProfiler(statementCounter, entityManagerFactory);
+    }
+}
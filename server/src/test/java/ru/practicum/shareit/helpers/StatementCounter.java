@@ -0,0 +1,90 @@
+package ru.practicum.shareit.helpers;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// считает запросы, выполненные через JDBC в текущем потоке: DataSource из контекста оборачивается прокси,
+// который запоминает SQL каждого вызова execute* у Statement. Пакет (executeBatch) считается одним запросом.
+// Для PreparedStatement запоминаются и значения параметров на момент выполнения
+public class StatementCounter implements BeanPostProcessor {
+
+    private final ThreadLocal<List<ExecutedStatement>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    public void reset() {
+        statements.get().clear();
+    }
+
+    public List<String> getStatements() {
+        return statements.get().stream()
+                .map(ExecutedStatement::sql)
+                .toList();
+    }
+
+    public List<ExecutedStatement> getExecutedStatements() {
+        return List.copyOf(statements.get());
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return wrap(DataSource.class, dataSource, null);
+        }
+        return bean;
+    }
+
+    private Object wrap(Class<?> type, Object target, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (target instanceof PreparedStatement) {
+                bindParameter(parameters, method, args);
+            }
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                statements.get().add(new ExecutedStatement(
+                        sql != null ? sql : String.valueOf(args != null ? args[0] : method.getName()),
+                        Collections.unmodifiableList(new ArrayList<>(parameters.values()))));
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == Connection.class || Statement.class.isAssignableFrom(returnType)) {
+                String statementSql = args != null && args.length > 0 && args[0] instanceof String value ? value : null;
+                return result == null ? null : wrap(returnType, result, statementSql);
+            }
+            return result;
+        };
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    // setXxx(индекс, значение, ...): у setNull вторым аргументом идет тип, а не значение
+    private static void bindParameter(Map<Integer, Object> parameters, Method method, Object[] args) {
+        String name = method.getName();
+        if (name.equals("clearParameters")) {
+            parameters.clear();
+        } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            parameters.put(index, name.equals("setNull") ? null : args[1]);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    public record ExecutedStatement(String sql, List<Object> parameters) {
+    }
+}
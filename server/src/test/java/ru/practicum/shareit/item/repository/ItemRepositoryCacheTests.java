@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.helpers.TestData;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.config.HibernateCacheConfig.ITEMS_BY_USER_QUERY_REGION;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemRepositoryCacheTests {
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    @AfterEach
+    void tearDown() {
+        if (owner != null) {
+            itemRepository.deleteAll(itemRepository.findAll().stream()
+                    .filter(item -> item.getUser().getId().equals(owner.getId()))
+                    .toList());
+            userRepository.deleteById(owner.getId());
+        }
+    }
+
+    @Test
+    void findByUserIdOrderById_returnFromQueryCache_queryRepeated() {
+        // Given
+        owner = userRepository.save(TestData.createUser("query-cache@mail.ru"));
+        itemRepository.save(TestData.createItem(owner));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        itemRepository.findByUserIdOrderById(owner.getId());
+        long hits = statistics.getCacheRegionStatistics(ITEMS_BY_USER_QUERY_REGION).getHitCount();
+
+        // When
+        itemRepository.findByUserIdOrderById(owner.getId());
+
+        // Then
+        assertThat(statistics.getCacheRegionStatistics(ITEMS_BY_USER_QUERY_REGION).getHitCount())
+                .isEqualTo(hits + 1);
+    }
+
+    @Test
+    void findByUserIdOrderById_invalidateQueryCache_itemAdded() {
+        // Given
+        owner = userRepository.save(TestData.createUser("query-cache@mail.ru"));
+        itemRepository.save(TestData.createItem(owner));
+        itemRepository.findByUserIdOrderById(owner.getId());
+
+        // When
+        itemRepository.save(TestData.createItem(owner));
+
+        // Then
+        assertThat(itemRepository.findByUserIdOrderById(owner.getId())).hasSize(2);
+    }
+
+    @Test
+    void findById_putItemAndOwnerToSecondLevelCache_itemIsLoaded() {
+        // Given
+        owner = userRepository.save(TestData.createUser("entity-cache@mail.ru"));
+        Item item = itemRepository.save(TestData.createItem(owner));
+        entityManagerFactory.getCache().evictAll();
+
+        // When
+        itemRepository.findById(item.getId());
+
+        // Then
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId())).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(User.class, owner.getId())).isTrue();
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.helpers.TestData;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OffsetPageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemRepositoryTests {
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void search_returnNameMatchesFirst_itemsMatchByNameAndDescription() {
+        // Given
+        User owner = userRepository.save(TestData.createUser());
+        Item byDescription = itemRepository.save(createItem(owner, "Отвертка", "Почти как дрель", true));
+        Item byName = itemRepository.save(createItem(owner, "Аккумуляторная ДРЕЛЬ", "Мощная", true));
+        itemRepository.save(createItem(owner, "Дрель", "Сломана", false));
+        itemRepository.save(createItem(owner, "Молоток", "Тяжелый", true));
+
+        // When
+        List<Item> items = itemRepository.search("дрель", new OffsetPageRequest(0, 10));
+
+        // Then
+        assertThat(items).extracting(Item::getId).containsExactly(byName.getId(), byDescription.getId());
+    }
+
+    @Test
+    void search_returnRequestedPage_moreItemsThanPageSize() {
+        // Given
+        User owner = userRepository.save(TestData.createUser());
+        Item first = itemRepository.save(createItem(owner, "Дрель 1", "Дрель", true));
+        Item second = itemRepository.save(createItem(owner, "Дрель 2", "Дрель", true));
+        Item third = itemRepository.save(createItem(owner, "Дрель 3", "Дрель", true));
+
+        // When
+        List<Item> items = itemRepository.search("дрель", new OffsetPageRequest(1, 2));
+
+        // Then
+        assertThat(items).extracting(Item::getId).containsExactly(second.getId(), third.getId());
+        assertThat(items).extracting(Item::getId).doesNotContain(first.getId());
+    }
+
+    @Test
+    void search_matchLiteralPercent_textIsEscaped() {
+        // Given
+        User owner = userRepository.save(TestData.createUser());
+        Item discount = itemRepository.save(createItem(owner, "Дрель со скидкой 50%", "Мощная", true));
+        itemRepository.save(createItem(owner, "Дрель 500 Вт", "Мощная", true));
+        itemRepository.save(createItem(owner, "Дрель_50", "Мощная", true));
+
+        // When
+        List<Item> items = itemRepository.search("50\\%", new OffsetPageRequest(0, 10));
+
+        // Then
+        assertThat(items).extracting(Item::getId).containsExactly(discount.getId());
+    }
+
+    private Item createItem(User owner, String name, String description, boolean available) {
+        Item item = TestData.createItem(owner);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.helpers.TestData;
+import ru.practicum.shareit.item.dto.ItemBatchResult;
+import ru.practicum.shareit.item.dto.ItemBatchUpdateRequest;
+import ru.practicum.shareit.item.dto.NewItemRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemServiceBatchTests {
+
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void createBatch_createValidItemsAndReportMissingRequest_oneItemReferencesUnknownRequest() {
+        // Given
+        User owner = userRepository.save(TestData.createUser(UUID.randomUUID() + "@mail.ru"));
+        NewItemRequest withUnknownRequest = createNewItemRequest("Second");
+        withUnknownRequest.setRequestId(Long.MAX_VALUE);
+
+        // When
+        List<ItemBatchResult> results = itemService.createBatch(owner.getId(), List.of(
+                createNewItemRequest("First"),
+                withUnknownRequest,
+                createNewItemRequest("Third")
+        ));
+
+        // Then
+        assertThat(results).extracting(ItemBatchResult::getStatus).containsExactly(201, 404, 201);
+        assertThat(results.get(0).getItem().getName()).isEqualTo("First");
+        assertThat(results.get(1).getError()).isNotBlank();
+        assertThat(itemRepository.findById(results.get(2).getId()))
+                .hasValueSatisfying(item -> assertThat(item.getName()).isEqualTo("Third"));
+    }
+
+    @Test
+    void updateBatch_updateOwnItemsAndReportForeign_oneItemBelongsToAnotherUser() {
+        // Given
+        User owner = userRepository.save(TestData.createUser(UUID.randomUUID() + "@mail.ru"));
+        User stranger = userRepository.save(TestData.createUser(UUID.randomUUID() + "@mail.ru"));
+        List<ItemBatchResult> created = itemService.createBatch(owner.getId(), List.of(createNewItemRequest("Own")));
+        Long foreignItemId = itemService.createBatch(stranger.getId(), List.of(createNewItemRequest("Foreign")))
+                .get(0).getId();
+
+        // When
+        List<ItemBatchResult> results = itemService.updateBatch(owner.getId(), List.of(
+                createUpdateRequest(created.get(0).getId(), "Renamed"),
+                createUpdateRequest(foreignItemId, "Stolen")
+        ));
+
+        // Then
+        assertThat(results).extracting(ItemBatchResult::getStatus).containsExactly(200, 404);
+        assertThat(itemRepository.findAllById(List.of(created.get(0).getId(), foreignItemId)))
+                .extracting(Item::getName)
+                .containsExactlyInAnyOrder("Renamed", "Foreign");
+    }
+
+    @Test
+    void updateBatch_throwValidationException_itemIsRepeated() {
+        // Given
+        User owner = userRepository.save(TestData.createUser(UUID.randomUUID() + "@mail.ru"));
+        Long itemId = itemService.createBatch(owner.getId(), List.of(createNewItemRequest("Own"))).get(0).getId();
+
+        // When / Then
+        assertThatThrownBy(() -> itemService.updateBatch(owner.getId(), List.of(
+                createUpdateRequest(itemId, "First"),
+                createUpdateRequest(itemId, "Second")
+        ))).isInstanceOf(ValidationException.class);
+    }
+
+    private static NewItemRequest createNewItemRequest(String name) {
+        NewItemRequest request = new NewItemRequest();
+        request.setName(name);
+        request.setDescription("Description");
+        request.setAvailable(true);
+        return request;
+    }
+
+    private static ItemBatchUpdateRequest createUpdateRequest(Long itemId, String name) {
+        ItemBatchUpdateRequest request = new ItemBatchUpdateRequest();
+        request.setId(itemId);
+        request.setName(name);
+        return request;
+    }
+}
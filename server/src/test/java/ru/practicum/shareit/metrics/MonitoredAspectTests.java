@@ -0,0 +1,103 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.handling.ErrorHandler;
+import ru.practicum.shareit.user.dto.NewUserRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.slo.shareit.method.calls=10ms,100ms"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class MonitoredAspectTests {
+
+    private final MockMvc mvc;
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+
+    @Test
+    void get_recordServiceAndRepositoryCalls_ownerHasNoItems() throws Exception {
+        // Given
+        UserDto owner = userService.importUsers(List.of(
+                new NewUserRequest(UUID.randomUUID() + "@mail.ru", "owner"))).get(0);
+        long callsBefore = count(calls("service", "ItemServiceImpl", "getItems", "none"));
+
+        // When
+        mvc.perform(get("/items").header(HEADER_X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        // Then
+        assertThat(count(calls("service", "ItemServiceImpl", "getItems", "none"))).isEqualTo(callsBefore + 1);
+        assertThat(meterRegistry.find(MonitoredAspect.ROWS)
+                .tags("layer", "service", "class", "ItemServiceImpl", "method", "getItems")
+                .summary())
+                .isNotNull();
+        assertThat(meterRegistry.find(MonitoredAspect.CALLS).tag("layer", "repository").timers())
+                .isNotEmpty()
+                .allSatisfy(timer -> assertThat(timer.getId().getTag("class")).endsWith("Repository"));
+    }
+
+    @Test
+    void get_countErrorByExceptionType_userIsNotExisted() throws Exception {
+        // Given
+        double errorsBefore = meterRegistry.counter(ErrorHandler.ERRORS,
+                "exception", "NotFoundException", "status", "404").count();
+
+        // When
+        mvc.perform(get("/users/{userId}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        // Then
+        assertThat(meterRegistry.counter(ErrorHandler.ERRORS,
+                "exception", "NotFoundException", "status", "404").count()).isEqualTo(errorsBefore + 1);
+        assertThat(count(calls("service", "UserService", "getById", "NotFoundException"))).isPositive();
+    }
+
+    @Test
+    void prometheus_exposeHistogramBuckets_methodsWereCalled() throws Exception {
+        // Given
+        mvc.perform(get("/users/{userId}", Long.MAX_VALUE));
+
+        // When
+        String body = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // Then
+        assertThat(body)
+                .contains("shareit_method_calls_seconds_bucket{")
+                .contains("shareit_errors_total{");
+    }
+
+    private Timer calls(String layer, String className, String method, String exception) {
+        return meterRegistry.find(MonitoredAspect.CALLS)
+                .tags("layer", layer, "class", className, "method", method, "exception", exception)
+                .timer();
+    }
+
+    private static long count(Timer timer) {
+        return timer == null ? 0 : timer.count();
+    }
+}
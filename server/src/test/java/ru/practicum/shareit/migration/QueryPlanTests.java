@@ -0,0 +1,199 @@
+package ru.practicum.shareit.migration;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.helpers.CallProfiler;
+import ru.practicum.shareit.helpers.CallProfilingConfig;
+import ru.practicum.shareit.helpers.StatementCounter;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// планы частых запросов репозиториев на схеме из миграций. Отдельная база H2 в режиме PostgreSQL
+// заполняется данными и статистикой (ANALYZE), чтобы планировщик выбирал между индексом и полным просмотром.
+// H2 сам индексирует внешние ключи, Postgres - нет, поэтому внешние ключи в этой базе удаляются вместе с их индексами.
+// ddl-auto=none: за обернутым счетчиком DataSource Spring Boot не видит Flyway и пересоздал бы схему по сущностям
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "spring.jpa.hibernate.ddl-auto=none"
+        }
+)
+@Import(CallProfilingConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanTests {
+
+    private static final int USERS = 500;
+    private static final int ITEMS_PER_USER = 4;
+    private static final int REQUESTS = 500;
+    // в каждой таблице не меньше 500 строк: чтение по индексу затрагивает единицы и десятки строк
+    private static final int MAX_SCANNED_ROWS = 100;
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatementCounter statementCounter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+
+    @BeforeAll
+    void seed() {
+        List<String[]> foreignKeys = jdbcTemplate.query("SELECT table_name, constraint_name " +
+                        "FROM information_schema.table_constraints " +
+                        "WHERE constraint_type = 'FOREIGN KEY' AND table_schema = 'public'",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)});
+        for (String[] foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + foreignKey[0] + " DROP CONSTRAINT " + foreignKey[1]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (long id = 1; id <= REQUESTS; id++) {
+            requests.add(new Object[]{id, "request" + id, id, Timestamp.valueOf(now.minusHours(id))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO item_requests (id, description, author_id, created) VALUES (?, ?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= USERS * ITEMS_PER_USER; id++) {
+            Long requestId = id % 10 == 0 ? id / 10 : null;
+            items.add(new Object[]{id, (id - 1) / ITEMS_PER_USER + 1, requestId, "item" + id, "description" + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, user_id, request_id, name, description, available) " +
+                "VALUES (?, ?, ?, ?, ?, TRUE)", items);
+
+        // каждый пользователь бронирует вещи нескольких следующих владельцев
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        long bookingId = 1;
+        for (long bookerId = 1; bookerId <= USERS; bookerId++) {
+            for (int shift = 1; shift <= 3; shift++) {
+                long itemId = ((bookerId + shift) % USERS) * ITEMS_PER_USER + 1;
+                LocalDateTime start = now.minusDays(bookingId % 30);
+                bookings.add(new Object[]{bookingId, bookerId, itemId, (itemId - 1) / ITEMS_PER_USER + 1,
+                        Timestamp.valueOf(start.minusDays(1)),
+                        Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1))});
+                comments.add(new Object[]{bookingId, "comment" + bookingId, itemId, bookerId,
+                        Timestamp.valueOf(start.plusDays(2))});
+                bookingId++;
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, booker_id, item_id, owner_id, create_date, start_date, " +
+                "end_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, 'APPROVED')", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created_date) VALUES (?, ?, ?, ?, ?)",
+                comments);
+
+        // сводки бронирований по всем вещам, устарела по времени только каждая сотая
+        List<Object[]> summaries = new ArrayList<>();
+        for (long itemId = 1; itemId <= USERS * ITEMS_PER_USER; itemId++) {
+            LocalDateTime refreshAt = itemId % 100 == 0 ? now.minusHours(itemId % 24 + 1) : now.plusDays(itemId % 30 + 1);
+            summaries.add(new Object[]{itemId, Timestamp.valueOf(refreshAt)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO item_booking_summaries (item_id, refresh_at, waiting_count, " +
+                "approved_count, rejected_count) VALUES (?, ?, 0, 3, 0)", summaries);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // каждый вызов идет через настоящий репозиторий или сервис (если аргументы запроса собирает сервис),
+    // а EXPLAIN ANALYZE выполняется для каждого select, который Hibernate отправил в базу, с теми же параметрами.
+    // Без индексов из V2 вещи владельца, вещи по запросам и запросы вещей читались бы полным просмотром таблиц
+    Stream<Arguments> queries() {
+        Instant now = Instant.now();
+        return Stream.of(
+                Arguments.of("ItemRepository.findByUserIdOrderById",
+                        call(() -> itemRepository.findByUserIdOrderById(7L))),
+                Arguments.of("ItemRepository.findByRequestIdIn",
+                        call(() -> itemRepository.findByRequestIdIn(List.of(3L, 5L, 8L)))),
+                Arguments.of("BookingRepository.findPage (booker)",
+                        call(() -> bookingService.getBookingsByBooker(7L, BookingState.ALL, 0, 10, null))),
+                Arguments.of("BookingRepository.findOwnerPage",
+                        call(() -> bookingService.getBookingsByOwner(7L, BookingState.ALL, 0, 10, null))),
+                Arguments.of("BookingRepository.findBookingDatesByItemIdIn",
+                        call(() -> bookingRepository.findBookingDatesByItemIdIn(List.of(5L, 9L, 13L), now))),
+                Arguments.of("BookingRepository.findExpiredForUpdate",
+                        call(() -> transactionTemplate.executeWithoutResult(status ->
+                                bookingRepository.findExpiredForUpdate(now, now, PageRequest.of(0, 100))))),
+                Arguments.of("ItemBookingSummaryRepository.findStale",
+                        call(() -> summaryRepository.findStale(now, PageRequest.of(0, 100)))),
+                Arguments.of("CommentRepository.findViewsByItemIdIn",
+                        call(() -> commentRepository.findViewsByItemIdIn(List.of(5L, 9L, 13L)))),
+                Arguments.of("ItemRequestRepository.findByAuthor",
+                        call(() -> itemRequestService.getRequestsByAuthor(7L))),
+                Arguments.of("ItemRequestRepository.findAllBy",
+                        call(() -> itemRequestService.getAll(20, 10)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void explain_useIndex_hotRepositoryQuery(String repositoryQuery, CallProfiler.Call call) throws Exception {
+        // Given
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statementCounter.reset();
+        call.run();
+        List<StatementCounter.ExecutedStatement> selects = statementCounter.getExecutedStatements().stream()
+                .filter(statement -> statement.sql().stripLeading().regionMatches(true, 0, "select", 0, 6))
+                .toList();
+
+        // When
+        List<String> plans = selects.stream()
+                .map(statement -> jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + statement.sql(), String.class,
+                        statement.parameters().toArray()))
+                .toList();
+
+        // Then
+        assertThat(plans).as(repositoryQuery).isNotEmpty();
+        assertThat(plans).allSatisfy(plan -> {
+            assertThat(plan)
+                    .as("%s: %s", repositoryQuery, plan)
+                    .doesNotContainIgnoringCase("tableScan");
+            // полный просмотр по первичному ключу (ORDER BY id) не помечается как tableScan, его видно по числу строк
+            assertThat(SCAN_COUNT.matcher(plan).results().map(result -> Integer.parseInt(result.group(1))))
+                    .as("%s: %s", repositoryQuery, plan)
+                    .allSatisfy(scanned -> assertThat(scanned).isLessThanOrEqualTo(MAX_SCANNED_ROWS));
+        });
+    }
+
+    private static CallProfiler.Call call(CallProfiler.Call call) {
+        return call;
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.performance;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingImportRequest;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryRefresher;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.helpers.CallProfile;
+import ru.practicum.shareit.helpers.CallProfiler;
+import ru.practicum.shareit.helpers.CallProfilingConfig;
+import ru.practicum.shareit.helpers.TestData;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
+
+// число запросов к базе и выделенная память на вызов контроллера при росте данных пользователя.
+// Число запросов не должно зависеть от размера данных (N+1), память - расти не быстрее линейного бюджета
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:call-profiles")
+@AutoConfigureMockMvc
+@Import(CallProfilingConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ControllerCallProfileTests {
+
+    private static final int[] SIZES = {10, 50, 200};
+
+    private final MockMvc mvc;
+    private final CallProfiler profiler;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final CommentRepository commentRepository;
+    private final BookingService bookingService;
+    private final ItemBookingSummaryRefresher summaryRefresher;
+
+    private final Map<Integer, DataSet> dataSets = new HashMap<>();
+
+    @BeforeAll
+    void seed() {
+        for (int size : SIZES) {
+            dataSets.put(size, seed(size));
+        }
+        // даты сводок перенесенных броней сохраняет задача по расписанию, в тестах она выключена
+        summaryRefresher.refreshAll();
+    }
+
+    static Stream<Arguments> calls() {
+        return Stream.of(
+                Arguments.of(Endpoint.ITEMS, 10),
+                Arguments.of(Endpoint.ITEMS, 50),
+                Arguments.of(Endpoint.ITEMS, 200),
+                Arguments.of(Endpoint.BOOKINGS, 10),
+                Arguments.of(Endpoint.BOOKINGS, 50),
+                Arguments.of(Endpoint.BOOKINGS, 200),
+                Arguments.of(Endpoint.OWNER_BOOKINGS, 10),
+                Arguments.of(Endpoint.OWNER_BOOKINGS, 50),
+                Arguments.of(Endpoint.OWNER_BOOKINGS, 200),
+                Arguments.of(Endpoint.REQUESTS, 10),
+                Arguments.of(Endpoint.REQUESTS, 50),
+                Arguments.of(Endpoint.REQUESTS, 200),
+                Arguments.of(Endpoint.ALL_REQUESTS, 10),
+                Arguments.of(Endpoint.ALL_REQUESTS, 50),
+                Arguments.of(Endpoint.ALL_REQUESTS, 200)
+        );
+    }
+
+    @ParameterizedTest(name = "{0} x{1}")
+    @MethodSource("calls")
+    void get_constantStatementsAndBoundedAllocation_growingDataSet(Endpoint endpoint, int size) throws Exception {
+        // Given
+        DataSet dataSet = dataSets.get(size);
+
+        // When
+        CallProfile profile = profiler.profile(() -> mvc.perform(get(endpoint.path)
+                        .header(HEADER_X_SHARER_USER_ID, endpoint.userId(dataSet))
+                        .param("size", String.valueOf(Math.min(size, endpoint.maxRows))))
+                .andExpect(status().isOk()));
+
+        // Then
+        assertThat(profile.getStatementCount())
+                .as("%s x%d: %s", endpoint, size, profile.getStatements())
+                .isEqualTo(endpoint.statements);
+        assertThat(profile.getAllocatedBytes())
+                .as("%s x%d", endpoint, size)
+                .isLessThanOrEqualTo(endpoint.baseBytes + endpoint.bytesPerRow * Math.min(size, endpoint.maxRows));
+    }
+
+    // владелец с size вещами, автор с size запросами (на каждый ответили вещью владельца)
+    // и арендатор с size бронями этих вещей, половина в прошлом, и отзывом на каждую вещь
+    private DataSet seed(int size) {
+        User owner = userRepository.save(TestData.createUser("owner" + size + "@mail.ru"));
+        User author = userRepository.save(TestData.createUser("author" + size + "@mail.ru"));
+        User booker = userRepository.save(TestData.createUser("booker" + size + "@mail.ru"));
+
+        List<ItemRequest> itemRequests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ItemRequest itemRequest = new ItemRequest();
+            itemRequest.setAuthor(author);
+            itemRequest.setDescription("request" + i);
+            itemRequests.add(itemRequest);
+        }
+        itemRequests = itemRequestRepository.saveAll(itemRequests);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Item item = TestData.createItem(owner);
+            item.setRequest(itemRequests.get(i));
+            items.add(item);
+        }
+        items = itemRepository.saveAll(items);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingImportRequest> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = i % 2 == 0 ? now.minusDays(i + 2) : now.plusDays(i + 1);
+            BookingImportRequest booking = new BookingImportRequest();
+            booking.setBookerId(booker.getId());
+            booking.setItemId(items.get(i).getId());
+            booking.setStart(start);
+            booking.setEnd(start.plusDays(1));
+            booking.setStatus(BookingStatus.APPROVED);
+            bookings.add(booking);
+            Comment comment = new Comment();
+            comment.setItem(items.get(i));
+            comment.setAuthor(booker);
+            comment.setText("comment" + i);
+            comments.add(comment);
+        }
+        bookingService.importBookings(bookings);
+        commentRepository.saveAll(comments);
+        return new DataSet(owner.getId(), author.getId(), booker.getId());
+    }
+
+    private record DataSet(long ownerId, long authorId, long bookerId) {
+    }
+
+    // baseBytes и bytesPerRow - бюджет памяти с запасом около двух раз от замеренного,
+    // maxRows - наибольший размер страницы, который принимает сервер
+    enum Endpoint {
+        // пользователь, вещи, отзывы, сводки бронирований
+        ITEMS("/items", 4, 700_000, 40_000, Integer.MAX_VALUE),
+        // пользователь, страница броней вместе с вещами, владельцами и запросами
+        BOOKINGS("/bookings", 2, 700_000, 12_000, 100),
+        OWNER_BOOKINGS("/bookings/owner", 2, 700_000, 12_000, 100),
+        // пользователь, запросы с авторами, вещи по запросам
+        REQUESTS("/requests", 3, 500_000, 12_000, Integer.MAX_VALUE),
+        ALL_REQUESTS("/requests/all", 2, 500_000, 12_000, Integer.MAX_VALUE);
+
+        private final String path;
+        private final int statements;
+        private final long baseBytes;
+        private final long bytesPerRow;
+        private final int maxRows;
+
+        Endpoint(String path, int statements, long baseBytes, long bytesPerRow, int maxRows) {
+            this.path = path;
+            this.statements = statements;
+            this.baseBytes = baseBytes;
+            this.bytesPerRow = bytesPerRow;
+            this.maxRows = maxRows;
+        }
+
+        private long userId(DataSet dataSet) {
+            return switch (this) {
+                case ITEMS, OWNER_BOOKINGS -> dataSet.ownerId();
+                case BOOKINGS -> dataSet.bookerId();
+                case REQUESTS, ALL_REQUESTS -> dataSet.authorId();
+            };
+        }
+    }
+}
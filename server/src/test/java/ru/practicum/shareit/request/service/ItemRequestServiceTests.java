@@ -0,0 +1,79 @@
+package ru.practicum.shareit.request.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.helpers.TestData;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemRequestServiceTests {
+
+    private final ItemRequestService itemRequestService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void getRequestsByAuthor_returnRequestsWithItems_itemsWereCreatedForRequests() {
+        // Given
+        User author = userRepository.save(TestData.createUser("author@mail.ru"));
+        User owner = userRepository.save(TestData.createUser("owner@mail.ru"));
+        ItemRequest first = itemRequestRepository.save(createRequest(author, "first", Instant.now().minusSeconds(60)));
+        ItemRequest second = itemRequestRepository.save(createRequest(author, "second", Instant.now()));
+        Item item = TestData.createItem(owner);
+        item.setRequest(first);
+        item = itemRepository.save(item);
+
+        // When
+        List<ItemRequestDto> requests = itemRequestService.getRequestsByAuthor(author.getId());
+
+        // Then
+        assertThat(requests).extracting(ItemRequestDto::getId).containsExactly(first.getId(), second.getId());
+        assertThat(requests.get(0).getAuthorName()).isEqualTo(author.getName());
+        assertThat(requests.get(0).getItems()).extracting(ItemDto::getId).containsExactly(item.getId());
+        assertThat(requests.get(1).getItems()).isEmpty();
+    }
+
+    @Test
+    void getAll_returnRequestedPage_moreRequestsThanPageSize() {
+        // Given
+        User author = userRepository.save(TestData.createUser("author@mail.ru"));
+        Instant now = Instant.now();
+        itemRequestRepository.save(createRequest(author, "first", now.minusSeconds(120)));
+        ItemRequest second = itemRequestRepository.save(createRequest(author, "second", now.minusSeconds(60)));
+        itemRequestRepository.save(createRequest(author, "third", now));
+
+        // When
+        List<ItemRequestDto> requests = itemRequestService.getAll(1, 1);
+
+        // Then
+        assertThat(requests).extracting(ItemRequestDto::getId).containsExactly(second.getId());
+    }
+
+    private ItemRequest createRequest(User author, String description, Instant created) {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setAuthor(author);
+        itemRequest.setDescription(description);
+        itemRequest.setCreated(created);
+        return itemRequest;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.helpers.TestData;
+import ru.practicum.shareit.user.dto.UpdateUserRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class UserRepositoryCacheTests {
+
+    private final UserRepository repository;
+    private final UserService userService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+
+    @AfterEach
+    void tearDown() {
+        if (userId != null) {
+            repository.deleteById(userId);
+        }
+    }
+
+    @Test
+    void findById_putUserToSecondLevelCache_userIsExisted() {
+        // Given
+        User user = repository.save(TestData.createUser("cached@mail.ru"));
+        userId = user.getId();
+        entityManagerFactory.getCache().evictAll();
+
+        // When
+        repository.findById(userId);
+
+        // Then
+        assertThat(entityManagerFactory.getCache().contains(User.class, userId)).isTrue();
+    }
+
+    @Test
+    void findById_returnNewInstance_previousResultIsChanged() {
+        // Given
+        User user = repository.save(TestData.createUser("unsaved@mail.ru"));
+        userId = user.getId();
+        repository.findById(userId).orElseThrow().setName("Unsaved");
+
+        // When
+        User actual = repository.findById(userId).orElseThrow();
+
+        // Then
+        assertThat(actual.getName()).isEqualTo("UserName");
+    }
+
+    @Test
+    void update_returnNewName_userIsCached() {
+        // Given
+        User user = repository.save(TestData.createUser("evicted@mail.ru"));
+        userId = user.getId();
+        repository.findById(userId);
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setName("NewName");
+
+        // When
+        userService.update(userId, request);
+
+        // Then
+        assertThat(repository.findById(userId))
+                .isPresent()
+                .hasValueSatisfying(actual -> assertThat(actual.getName()).isEqualTo("NewName"));
+    }
+}
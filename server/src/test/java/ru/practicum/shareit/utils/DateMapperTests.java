@@ -0,0 +1,95 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DateMapperTests {
+
+    private static final DateTimeFormatter REFERENCE = DateTimeFormatter.ISO_LOCAL_DATE_TIME
+            .withZone(ZoneId.systemDefault());
+
+    private final DateMapper dateMapper = new DateMapper();
+
+    @Test
+    void toString_matchIsoFormatter_RandomInstants() {
+        Random random = new Random(42);
+        long min = Instant.parse("0001-01-01T00:00:00Z").getEpochSecond();
+        long max = Instant.parse("9999-12-30T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < 100_000; i++) {
+            long seconds = min + (long) (random.nextDouble() * (max - min));
+            int nano = switch (i % 4) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(1000) * 1_000_000;
+                case 2 -> random.nextInt(1_000_000) * 1000;
+                default -> random.nextInt(1_000_000_000);
+            };
+            Instant instant = Instant.ofEpochSecond(seconds, nano);
+
+            String actual = dateMapper.toString(instant);
+
+            assertThat(actual).isEqualTo(REFERENCE.format(instant));
+            assertThat(dateMapper.toInstant(actual)).isEqualTo(instant);
+        }
+    }
+
+    @Test
+    void toString_matchIsoFormatter_ConcurrentCalls() {
+        List<Instant> instants = new Random(7).longs(10_000, 0, 4_000_000_000L)
+                .mapToObj(seconds -> Instant.ofEpochSecond(seconds, seconds % 1_000_000_000))
+                .toList();
+
+        List<String> actual = instants.parallelStream()
+                .map(dateMapper::toString)
+                .toList();
+
+        assertThat(actual).isEqualTo(instants.stream().map(REFERENCE::format).toList());
+    }
+
+    @Test
+    void toString_useIsoFormatter_YearOutOfFourDigits() {
+        Instant instant = Instant.parse("+10000-01-01T00:00:00Z");
+
+        assertThat(dateMapper.toString(instant)).isEqualTo(REFERENCE.format(instant));
+        assertThat(dateMapper.toString(null)).isNull();
+    }
+
+    @Test
+    void toLocalDateTime_parseIsoForms_FastAndFallbackPaths() {
+        assertThat(dateMapper.toLocalDateTime("2024-01-01T10:00:00"))
+                .isEqualTo(LocalDateTime.of(2024, 1, 1, 10, 0, 0));
+        assertThat(dateMapper.toLocalDateTime("2024-01-01T10:00:00.5"))
+                .isEqualTo(LocalDateTime.of(2024, 1, 1, 10, 0, 0, 500_000_000));
+        assertThat(dateMapper.toLocalDateTime("2024-01-01T10:00"))
+                .isEqualTo(LocalDateTime.of(2024, 1, 1, 10, 0, 0));
+        assertThat(dateMapper.toLocalDateTime(null)).isNull();
+    }
+
+    @Test
+    void toInstant_throwException_WrongDate() {
+        assertThatThrownBy(() -> dateMapper.toInstant("2024-02-30T10:00:00"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> dateMapper.toInstant("2024-01-01T1a:00:00"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> dateMapper.toInstant("2024-01-01 10:00:00"))
+                .isInstanceOf(DateTimeParseException.class);
+    }
+
+    @Test
+    void now_returnClockInstant_ClockIsFixed() {
+        Instant instant = Instant.parse("2024-01-01T10:00:00Z");
+        DateMapper fixedDateMapper = new DateMapper(Clock.fixed(instant, ZoneId.systemDefault()));
+
+        assertThat(fixedDateMapper.now()).isEqualTo(instant);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingImportRequest;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.NewUserRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.WebConstant.HEADER_X_SHARER_USER_ID;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class NdjsonExportTests {
+
+    // больше размера порции выгрузки, чтобы захватить сброс буфера и очистку контекста
+    private static final int COUNT = NdjsonExporter.FETCH_SIZE + 50;
+
+    private final MockMvc mvc;
+    private final ObjectMapper objectMapper;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+
+    @Test
+    void export_writeOneJsonPerLine_ownerHasItemsAndBookings() throws Exception {
+        // Given
+        String prefix = UUID.randomUUID().toString();
+        List<UserDto> users = userService.importUsers(IntStream.range(0, COUNT + 2)
+                .mapToObj(i -> new NewUserRequest(prefix + i + "@mail.ru", "user" + i))
+                .toList());
+        Long ownerId = users.get(0).getId();
+        Long otherOwnerId = users.get(1).getId();
+        List<ItemDto> items = itemService.importItems(List.of(
+                createItemImportRequest(ownerId),
+                createItemImportRequest(ownerId),
+                createItemImportRequest(otherOwnerId)
+        ));
+        List<BookingImportRequest> bookings = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            bookings.add(createBookingImportRequest(users.get(i + 2).getId(), items.get(i % 2).getId()));
+        }
+        bookings.add(createBookingImportRequest(users.get(2).getId(), items.get(2).getId()));
+        bookingService.importBookings(bookings);
+
+        // When
+        List<JsonNode> exportedItems = export(get("/items/export").header(HEADER_X_SHARER_USER_ID, ownerId));
+        List<JsonNode> exportedBookings = export(get("/bookings/owner/export").header(HEADER_X_SHARER_USER_ID, ownerId));
+        List<JsonNode> allBookings = export(get("/bookings/export"));
+
+        // Then
+        assertThat(exportedItems)
+                .extracting(item -> item.get("id").asLong())
+                .containsExactly(items.get(0).getId(), items.get(1).getId());
+        assertThat(exportedBookings)
+                .hasSize(COUNT)
+                .allSatisfy(booking -> assertThat(booking.get("item").get("id").asLong())
+                        .isIn(items.get(0).getId(), items.get(1).getId()));
+        assertThat(exportedBookings)
+                .extracting(booking -> booking.get("id").asLong())
+                .isSorted();
+        assertThat(allBookings).hasSizeGreaterThanOrEqualTo(COUNT + 1);
+    }
+
+    @Test
+    void export_returnNotFound_userIsNotExisted() throws Exception {
+        mvc.perform(get("/bookings/owner/export").header(HEADER_X_SHARER_USER_ID, Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<JsonNode> export(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult asyncResult = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+
+    private static ItemImportRequest createItemImportRequest(Long ownerId) {
+        ItemImportRequest request = new ItemImportRequest();
+        request.setOwnerId(ownerId);
+        request.setName("ItemName");
+        request.setDescription("ItemDesc");
+        request.setAvailable(true);
+        return request;
+    }
+
+    private static BookingImportRequest createBookingImportRequest(Long bookerId, Long itemId) {
+        BookingImportRequest request = new BookingImportRequest();
+        request.setBookerId(bookerId);
+        request.setItemId(itemId);
+        request.setStart(LocalDateTime.now().plusDays(1));
+        request.setEnd(LocalDateTime.now().plusDays(2));
+        request.setStatus(BookingStatus.WAITING);
+        return request;
+    }
+}